@@ -1,22 +1,33 @@
 import http from 'k6/http';
 import { check, sleep } from 'k6';
+import { Counter } from 'k6/metrics';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
 
-const csv1 = open('../fixtures/sample1.csv', 'b');
-const csv2 = open('../fixtures/sample2.csv', 'b');
+// Run once per thread mode against the same data to compare them, e.g. with files from `make generate`:
+//   DEALS_VIRTUAL_THREADS=false mvn spring-boot:run, then make k6-concurrent THREADS=platform VUS=200 FILES=../fixtures/generated.csv
+//   DEALS_VIRTUAL_THREADS=true  mvn spring-boot:run, then make k6-concurrent THREADS=virtual  VUS=200 FILES=../fixtures/generated.csv
+// and compare the closing rows/s lines, or http_reqs and imported_rows in k6/erf_concurrent_imports_<THREADS>.json.
+const FILES = (__ENV.DEALS_FILES || '../fixtures/sample1.csv,../fixtures/sample2.csv').split(',');
+const THREADS = __ENV.THREADS || 'default';
+const SUMMARY_ONLY = __ENV.SUMMARY === 'true';
+const IMPORT_URL = `http://localhost:8080/api/v1/deals/import${SUMMARY_ONLY ? '?mode=summary' : ''}`;
 
-const files = [csv1, csv2];
+const files = FILES.map((file) => open(file, 'b'));
+
+const importedRows = new Counter('imported_rows');
 
 export const options = {
     scenarios: {
         csv_import_load: {
             executor: 'constant-vus',
-            vus: 10,
-            duration: '30s',
+            vus: Number(__ENV.VUS || 10),
+            duration: __ENV.DURATION || '30s',
             gracefulStop: '5s',
+            tags: { threads: THREADS },
         },
     },
     thresholds: {
-        http_req_duration: ['p(95) < 500'],
+        http_req_duration: [`p(95) < ${__ENV.P95_MS || 500}`],
         checks: ['rate > 0.99']
     },
 };
@@ -31,12 +42,26 @@ export default function () {
         file: http.file(csvData, filename, 'text/csv'),
     };
 
-    const res = http.post('http://localhost:8080/api/v1/deals/import', payload, {
+    const res = http.post(IMPORT_URL, payload, {
     });
 
-    check(res, {
+    const ok = check(res, {
         'status is 200': (r) => r.status === 200,
     });
+    if (ok) {
+        importedRows.add(SUMMARY_ONLY ? res.json('summary.total') : res.json('results').length);
+    }
+
+    sleep(Number(__ENV.SLEEP || 0.5));
+}
 
-    sleep(0.5);
-}
\ No newline at end of file
+export function handleSummary(data) {
+    const seconds = data.state.testRunDurationMs / 1000;
+    const rows = data.metrics.imported_rows ? data.metrics.imported_rows.values.count : 0;
+    const line = `[${THREADS}] ${data.metrics.http_reqs.values.count} imports, ${(rows / seconds).toFixed(0)} rows/s, `
+        + `p95 ${data.metrics.http_req_duration.values['p(95)'].toFixed(0)} ms\n`;
+    return {
+        stdout: textSummary(data, { indent: ' ', enableColors: true }) + '\n' + line,
+        [`k6/erf_concurrent_imports_${THREADS}.json`]: JSON.stringify(data, null, 2),
+    };
+}
@@ -1,7 +1,14 @@
 import http from 'k6/http';
 import { check } from 'k6';
 
-const largeFile = open('../fixtures/large.csv', 'b');
+// Any upload can be used, e.g. one written by `make generate`:
+//   k6 run -e DEALS_FILE=../fixtures/generated.csv -e DEALS_EXISTING_FILE=../fixtures/generated-existing.csv ...
+const FILE = __ENV.DEALS_FILE || '../fixtures/large.csv';
+const EXISTING_FILE = __ENV.DEALS_EXISTING_FILE;
+const IMPORT_URL = 'http://localhost:8080/api/v1/deals/import';
+
+const largeFile = open(FILE, 'b');
+const existingFile = EXISTING_FILE ? open(EXISTING_FILE, 'b') : null;
 
 export const options = {
     scenarios: {
@@ -17,12 +24,22 @@ export const options = {
     },
 };
 
+// Loads the pre-existing deals once so their rows in the main file come back as DB duplicates
+export function setup() {
+    if (existingFile) {
+        const res = http.post(`${IMPORT_URL}?mode=summary`, {
+            file: http.file(existingFile, 'existing.csv', 'text/csv'),
+        });
+        check(res, { 'existing deals imported': (r) => r.status === 200 });
+    }
+}
+
 export default function () {
     const payload = {
         file: http.file(largeFile, 'large.csv', 'text/csv'),
     };
 
-    const res = http.post('http://localhost:8080/api/v1/deals/import', payload);
+    const res = http.post(IMPORT_URL, payload);
 
     check(res, {
         'status is 200': (r) => r.status === 200,
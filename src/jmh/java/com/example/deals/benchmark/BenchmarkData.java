@@ -0,0 +1,42 @@
+package com.example.deals.benchmark;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * In-memory uploads shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String HEADER = "dealUniqueId,fromCurrency,toCurrency,timestamp,amount\n";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A UTF-8 upload of {@code rows} records. {@code dirtyPercent} of them, spread evenly, are the awkward cases
+     * partner files contain: quoted fields with embedded commas, short rows, blank ids and lowercase currencies.
+     */
+    static byte[] csv(int rows, int dirtyPercent) {
+        StringBuilder sb = new StringBuilder(HEADER.length() + rows * 48).append(HEADER);
+        for (int i = 0; i < rows; i++) {
+            if (isDirty(i, dirtyPercent)) {
+                switch (i % 4) {
+                    case 0 -> sb.append("\"D").append(i).append(",X\",USD,EUR,2025-01-01T10:00:00Z,\"1,000.25\"\n");
+                    case 1 -> sb.append('D').append(i).append(",USD,EUR\n");
+                    case 2 -> sb.append(" ,USD,EUR,2025-01-01T10:00:00Z,10.00\n");
+                    default -> sb.append('D').append(i).append(",usd,EUR,2025-01-01 10:00,-5\n");
+                }
+            } else {
+                sb.append('D').append(i).append(",USD,EUR,2025-01-01T10:00:00Z,").append(1000 + i % 997).append(".25\n");
+            }
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * True for {@code percent} rows in every hundred, spread evenly rather than clustered.
+     */
+    static boolean isDirty(int row, int percent) {
+        return percent > 0 && (row * percent) % 100 < percent;
+    }
+}
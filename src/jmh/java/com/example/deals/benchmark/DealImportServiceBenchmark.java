@@ -0,0 +1,157 @@
+package com.example.deals.benchmark;
+
+import com.example.deals.config.DealCacheProperties;
+import com.example.deals.config.ImportProperties;
+import com.example.deals.model.Deal;
+import com.example.deals.parser.DealParser;
+import com.example.deals.repository.DealCopyRepository;
+import com.example.deals.repository.DealJdbcRepository;
+import com.example.deals.repository.DealRepository;
+import com.example.deals.repository.ImportCheckpointRepository;
+import com.example.deals.service.DealImportService;
+import com.example.deals.service.DealLookupCache;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportScheduler;
+import com.example.deals.service.ImportThreads;
+import com.example.deals.service.KnownDealIds;
+import com.example.deals.tools.DealFileGenerator;
+import com.example.deals.validation.DealValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Everything an import does per row apart from the database round trip: in-file duplicate tracking, validation,
+ * entity mapping, chunking, result building and stage metrics, on a generated file with the typical mix of bad
+ * rows. The deals table is an in-memory set holding the file's pre-existing ids, so DB duplicates are exercised
+ * too. {@code metered=false} swaps in no-op meters to show what instrumentation costs.
+ * Throughput is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Row events are sampled now, but sampled rows and the per-import summary still log; route SLF4J to the simple
+// provider and switch it off so log formatting and I/O stay out of the measurement
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dslf4j.provider=org.slf4j.simple.SimpleServiceProvider",
+        "-Dorg.slf4j.simpleLogger.defaultLogLevel=off"})
+public class DealImportServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final long SEED = 42;
+
+    @Param({"1", "500"})
+    public int batchSize;
+
+    @Param({"HASHED", "EXACT"})
+    public ImportProperties.SeenIds seenIds;
+
+    @Param({"true", "false"})
+    public boolean metered;
+
+    private List<DealParser.RowData> rows;
+    private long uploadSize;
+    private InMemoryDeals table;
+    private DealImportService service;
+
+    @Setup
+    public void setUp() {
+        byte[] csv = new DealFileGenerator(SEED, DealFileGenerator.Mix.TYPICAL).generate(ROWS);
+        uploadSize = csv.length;
+        try (var parsed = new DealParser(DealParser.Tokenizer.BYTES).stream(new ByteArrayInputStream(csv))) {
+            rows = parsed.toList();
+        }
+
+        // The generator's pre-existing ids, as if its existing-ids file had been imported
+        Set<String> existing = rows.stream().map(row -> row.request().getDealId())
+                .filter(id -> id.startsWith("E")).collect(Collectors.toSet());
+        table = new InMemoryDeals(existing);
+
+        ImportProperties properties = new ImportProperties();
+        properties.setBatchSize(batchSize);
+        properties.setSeenIds(seenIds);
+        // A composite registry without children hands out no-op meters, the baseline for instrumentation cost
+        MeterRegistry registry = metered
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+        ImportMetrics metrics = new ImportMetrics(registry);
+        service = new DealImportService(unusedJpaRepository(), table, new DealCopyRepository(null, null),
+                new DealValidator(), properties, new DealLookupCache(new DealCacheProperties()),
+                new KnownDealIds(table, properties), metrics, new ImportCheckpointRepository(null),
+                new ImportThreads(properties, null, metrics), new ImportScheduler(properties, metrics));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTable() {
+        table.reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void importRows(Blackhole bh) {
+        service.importRows(rows, uploadSize, bh::consume);
+    }
+
+    /**
+     * The JDBC batch writer never touches the JPA repository.
+     */
+    private static DealRepository unusedJpaRepository() {
+        return (DealRepository) Proxy.newProxyInstance(DealRepository.class.getClassLoader(),
+                new Class<?>[]{DealRepository.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Stand-in for the deals table with the same insert-if-absent contract as the real repository.
+     */
+    private static final class InMemoryDeals extends DealJdbcRepository {
+
+        private final Set<String> seeded;
+        private final Set<String> dealIds = new HashSet<>();
+
+        InMemoryDeals(Set<String> seeded) {
+            super(null, null);
+            this.seeded = seeded;
+        }
+
+        void reset() {
+            dealIds.clear();
+            dealIds.addAll(seeded);
+        }
+
+        @Override
+        public Set<String> insertAllIfAbsent(List<Deal> deals) {
+            Set<String> inserted = new HashSet<>();
+            for (Deal deal : deals) {
+                if (dealIds.add(deal.getDealId())) {
+                    inserted.add(deal.getDealId());
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        public boolean insertIfAbsent(Deal deal) {
+            return dealIds.add(deal.getDealId());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.deals.benchmark;
+
+import com.example.deals.dto.DealRequest;
+import com.example.deals.model.Deal;
+import com.example.deals.validation.DealValidator;
+import com.example.deals.validation.ValidatedDeal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the {@link Deal} entity from a raw request, which parses the timestamp and amount again,
+ * versus from the already typed {@link ValidatedDeal} the import path uses.
+ * Throughput is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealMappingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private DealRequest[] requests;
+    private ValidatedDeal[] validated;
+
+    @Setup
+    public void setUp() {
+        DealValidator validator = new DealValidator();
+        requests = new DealRequest[ROWS];
+        validated = new ValidatedDeal[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            DealRequest req = new DealRequest();
+            req.setDealId("D" + i);
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr((1000 + i % 997) + ".25");
+            requests[i] = req;
+            validated[i] = validator.parse(req);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromRequest(Blackhole bh) {
+        for (DealRequest req : requests) {
+            bh.consume(new Deal(req));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromValidated(Blackhole bh) {
+        for (ValidatedDeal deal : validated) {
+            bh.consume(new Deal(deal));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.deals.benchmark;
+
+import com.example.deals.parser.DealParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the OpenCSV and byte-level tokenizers on the same in-memory upload, across file sizes and shares of
+ * dirty rows. The primary score is files per second; the {@code rows} counter gives rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealParserBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"0", "10"})
+    public int dirtyPercent;
+
+    @Param({"OPENCSV", "BYTES"})
+    public DealParser.Tokenizer tokenizer;
+
+    private byte[] csv;
+    private DealParser parser;
+
+    @Setup
+    public void setUp() {
+        csv = BenchmarkData.csv(rows, dirtyPercent);
+        parser = new DealParser(tokenizer);
+    }
+
+    @Benchmark
+    public void stream(RowCounter counter, Blackhole bh) {
+        parser.stream(new ByteArrayInputStream(csv)).forEach(row -> {
+            bh.consume(row);
+            counter.rows++;
+        });
+    }
+
+    /**
+     * The list-returning entry point, which always goes through OpenCSV.
+     */
+    @Benchmark
+    public List<DealParser.RowData> parse(RowCounter counter) {
+        List<DealParser.RowData> parsed = parser.parse(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8));
+        counter.rows += parsed.size();
+        return parsed;
+    }
+}
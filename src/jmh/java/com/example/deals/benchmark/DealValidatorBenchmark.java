@@ -0,0 +1,70 @@
+package com.example.deals.benchmark;
+
+import com.example.deals.dto.DealRequest;
+import com.example.deals.exception.DealValidationException;
+import com.example.deals.validation.DealValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled and Bean Validation modes on a mix of valid and invalid rows, through both the
+ * result-returning {@code check} used by imports and the throwing {@code validate}.
+ * Throughput is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealValidatorBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"COMPILED", "BEAN"})
+    public DealValidator.Mode mode;
+
+    private DealRequest[] requests;
+    private DealValidator validator;
+
+    @Setup
+    public void setUp() {
+        requests = new DealRequest[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            DealRequest req = new DealRequest();
+            // Two rows in ten are invalid, as in a typical partner file
+            req.setDealId(i % 10 == 3 ? " " : "D" + i);
+            req.setFromCurrency(i % 10 == 7 ? "usd" : "USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr((1000 + i % 997) + ".25");
+            requests[i] = req;
+        }
+        validator = new DealValidator(mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void check(Blackhole bh) {
+        for (DealRequest req : requests) {
+            bh.consume(validator.check(req));
+        }
+    }
+
+    /**
+     * Invalid rows surface as exceptions here, so this also shows what throwing costs on a dirty file.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validate(Blackhole bh) {
+        for (DealRequest req : requests) {
+            try {
+                validator.validate(req);
+            } catch (DealValidationException e) {
+                bh.consume(e);
+            }
+        }
+    }
+}
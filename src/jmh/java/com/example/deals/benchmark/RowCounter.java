@@ -0,0 +1,22 @@
+package com.example.deals.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reports rows per second next to the per-invocation score of benchmarks that process a whole upload.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RowCounter {
+
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        rows = 0;
+    }
+}
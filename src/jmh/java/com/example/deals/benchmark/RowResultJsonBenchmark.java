@@ -0,0 +1,63 @@
+package com.example.deals.benchmark;
+
+import com.example.deals.result.RowResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of import results the two ways the controller writes them: one JSON document holding every
+ * row, and one line per row on a reused generator as the NDJSON endpoint does. Output is discarded.
+ * Throughput is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowResultJsonBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<RowResult> results;
+
+    @Setup
+    public void setUp() {
+        results = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String dealId = "D" + i;
+            results.add(switch (i % 10) {
+                case 3 -> RowResult.failure(dealId, "fromCurrency: must be a 3-letter ISO code");
+                case 7 -> RowResult.duplicate(dealId, "Duplicate dealId in file");
+                default -> RowResult.success(dealId);
+            });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void document() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), Map.of("results", results));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void ndjson() throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(OutputStream.nullOutputStream())) {
+            json.setRootValueSeparator(null);
+            for (RowResult result : results) {
+                json.writeObject(result);
+                json.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.deals.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "deals.cache")
+public class DealCacheProperties {
+
+    /**
+     * Deal lookups kept in memory, found or not. Zero disables caching.
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * How long a found deal is served from memory.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * How long an unknown dealId is answered with 404 from memory. Kept short because deals inserted by another
+     * instance only become visible here once this expires.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    public long getMaxSize() { return maxSize; }
+    public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public Duration getNegativeTtl() { return negativeTtl; }
+    public void setNegativeTtl(Duration negativeTtl) { this.negativeTtl = negativeTtl; }
+}
@@ -0,0 +1,373 @@
+package com.example.deals.config;
+
+import com.example.deals.parser.DealParser;
+import com.example.deals.validation.DealValidator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "deals.import")
+public class ImportProperties {
+
+    /**
+     * Number of rows checked, inserted and committed together. 1 commits every row on its own.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How the rows of a chunk are inserted when batchSize is above 1.
+     */
+    private BatchWriter batchWriter = BatchWriter.JDBC;
+
+    /**
+     * Uploads at least this large are ingested through PostgreSQL COPY. Zero or negative disables COPY.
+     */
+    private DataSize copyThreshold = DataSize.ofMegabytes(10);
+
+    /**
+     * Rows staged and merged per COPY transaction.
+     */
+    private int copyChunkSize = 50_000;
+
+    /**
+     * Tokenizer used for uploaded files.
+     */
+    private DealParser.Tokenizer tokenizer = DealParser.Tokenizer.BYTES;
+
+    /**
+     * How DealRequest constraint annotations are checked per row.
+     */
+    private DealValidator.Mode validation = DealValidator.Mode.COMPILED;
+
+    /**
+     * How dealIds already seen in the current upload are remembered.
+     */
+    private SeenIds seenIds = SeenIds.EXACT;
+
+    /**
+     * Imports running at once across requests and jobs; zero derives it from the connection pool size.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * Runs import workers on virtual threads on Java 21 or later.
+     */
+    private boolean virtualThreads = false;
+
+    private final Jobs jobs = new Jobs();
+
+    private final Parallel parallel = new Parallel();
+
+    private final KnownIds knownIds = new KnownIds();
+
+    private final Logging logging = new Logging();
+
+    private final Pipeline pipeline = new Pipeline();
+
+    private final Admission admission = new Admission();
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public BatchWriter getBatchWriter() { return batchWriter; }
+    public void setBatchWriter(BatchWriter batchWriter) { this.batchWriter = batchWriter; }
+
+    public DataSize getCopyThreshold() { return copyThreshold; }
+    public void setCopyThreshold(DataSize copyThreshold) { this.copyThreshold = copyThreshold; }
+
+    public int getCopyChunkSize() { return copyChunkSize; }
+    public void setCopyChunkSize(int copyChunkSize) { this.copyChunkSize = copyChunkSize; }
+
+    public DealParser.Tokenizer getTokenizer() { return tokenizer; }
+    public void setTokenizer(DealParser.Tokenizer tokenizer) { this.tokenizer = tokenizer; }
+
+    public DealValidator.Mode getValidation() { return validation; }
+    public void setValidation(DealValidator.Mode validation) { this.validation = validation; }
+
+    public SeenIds getSeenIds() { return seenIds; }
+    public void setSeenIds(SeenIds seenIds) { this.seenIds = seenIds; }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+    public Jobs getJobs() { return jobs; }
+
+    public Parallel getParallel() { return parallel; }
+
+    public KnownIds getKnownIds() { return knownIds; }
+
+    public Logging getLogging() { return logging; }
+
+    public Pipeline getPipeline() { return pipeline; }
+
+    public Admission getAdmission() { return admission; }
+
+    public boolean useCopy(long uploadSizeBytes) {
+        long threshold = copyThreshold.toBytes();
+        return threshold > 0 && uploadSizeBytes >= threshold;
+    }
+
+    /**
+     * {@code JDBC} issues a hand-written batch insert; {@code JPA} persists the entities in one transaction
+     * and relies on Hibernate's statement batching.
+     */
+    public enum BatchWriter { JDBC, JPA }
+
+    /**
+     * {@code EXACT} keeps the strings in a {@link java.util.HashSet}; {@code HASHED} keeps a fixed 12 bytes of hash
+     * per slot and never holds the id strings, at the cost of a tiny chance of reporting a new id as a duplicate.
+     */
+    public enum SeenIds { HASHED, EXACT }
+
+    public static class Jobs {
+
+        /**
+         * Worker threads running asynchronous imports.
+         */
+        private int threads = 2;
+
+        /**
+         * Submitted jobs allowed to wait for a worker before new submissions are rejected.
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * Finished jobs kept for polling, with their spooled results, before the oldest are evicted and deleted.
+         */
+        private int maxRetained = 100;
+
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+        public int getMaxRetained() { return maxRetained; }
+        public void setMaxRetained(int maxRetained) { this.maxRetained = maxRetained; }
+    }
+
+    public static class Parallel {
+
+        /**
+         * Spooled uploads at least this large are parsed and validated in parallel chunks. Zero or negative disables it.
+         */
+        private DataSize threshold = DataSize.ofMegabytes(16);
+
+        /**
+         * Approximate size of each chunk handed to a parser thread.
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(4);
+
+        /**
+         * Parser threads; zero uses one per available processor.
+         */
+        private int threads = 0;
+
+        public DataSize getThreshold() { return threshold; }
+        public void setThreshold(DataSize threshold) { this.threshold = threshold; }
+
+        public DataSize getChunkSize() { return chunkSize; }
+        public void setChunkSize(DataSize chunkSize) { this.chunkSize = chunkSize; }
+
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+
+        public int effectiveThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public boolean appliesTo(long uploadSizeBytes) {
+            long min = threshold.toBytes();
+            return min > 0 && uploadSizeBytes >= min;
+        }
+    }
+
+    public static class Pipeline {
+
+        /**
+         * Runs chunked imports as parse, validate and write stages on separate threads joined by bounded queues.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Validator threads shared by all imports; zero uses one per available processor.
+         */
+        private int validators = 0;
+
+        /**
+         * Writer threads shared by all imports, and chunks of one import written at once. One writes on the
+         * importing thread.
+         */
+        private int writers = 1;
+
+        /**
+         * Chunks of one import parsed ahead of the writer before the parser waits.
+         */
+        private int queueCapacity = 4;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getValidators() { return validators; }
+        public void setValidators(int validators) { this.validators = validators; }
+
+        public int getWriters() { return writers; }
+        public void setWriters(int writers) { this.writers = writers; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+        public int effectiveValidators() {
+            return validators > 0 ? validators : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    public static class Admission {
+
+        /**
+         * Admits import requests before their body is read; off lets every upload in.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Upload bytes admitted at once across all callers.
+         */
+        private DataSize maxBytes = DataSize.ofGigabytes(2);
+
+        /**
+         * Fraction of {@code max-bytes} one caller may hold, so others always have room. It is also the largest
+         * upload admitted, and what an upload without a Content-Length is charged, so it should not be below the
+         * multipart request limit.
+         */
+        private double callerShare = 0.5;
+
+        /**
+         * Rows read but not yet reported, across all imports.
+         */
+        private int maxRows = 200_000;
+
+        /**
+         * How long an upload waits for room before it is rejected with 429; zero rejects at once.
+         */
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        /**
+         * Sent as Retry-After on 429 responses.
+         */
+        private Duration retryAfter = Duration.ofSeconds(5);
+
+        /**
+         * Request header naming the caller; requests without it are grouped by remote address.
+         */
+        private String callerHeader = "X-Client-Id";
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public DataSize getMaxBytes() { return maxBytes; }
+        public void setMaxBytes(DataSize maxBytes) { this.maxBytes = maxBytes; }
+
+        public double getCallerShare() { return callerShare; }
+        public void setCallerShare(double callerShare) { this.callerShare = callerShare; }
+
+        public int getMaxRows() { return maxRows; }
+        public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
+
+        public Duration getMaxWait() { return maxWait; }
+        public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+        public Duration getRetryAfter() { return retryAfter; }
+        public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+
+        public String getCallerHeader() { return callerHeader; }
+        public void setCallerHeader(String callerHeader) { this.callerHeader = callerHeader; }
+    }
+
+    public static class KnownIds {
+
+        /**
+         * Keep a Bloom filter of existing dealIds so new deals skip the database duplicate check. Only the JPA
+         * batch writer makes that check, so the filter is loaded only with {@code batch-writer: jpa}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Ids the filter is sized for; it is sized for twice the table instead when the table is larger.
+         */
+        private long expectedIds = 10_000_000;
+
+        /**
+         * Share of new dealIds still sent to the exact database check.
+         */
+        private double falsePositiveRate = 0.01;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getExpectedIds() { return expectedIds; }
+        public void setExpectedIds(long expectedIds) { this.expectedIds = expectedIds; }
+
+        public double getFalsePositiveRate() { return falsePositiveRate; }
+        public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+    }
+
+    public static class Logging {
+
+        /**
+         * Per-row events for imported rows. Off by default; the summary event carries the totals.
+         */
+        private final Sample success = new Sample(0, 0);
+
+        /**
+         * Per-row events for rows already in the file or the database.
+         */
+        private final Sample duplicate = new Sample(20, 1_000);
+
+        /**
+         * Per-row events for rows that failed validation or persistence.
+         */
+        private final Sample failure = new Sample(100, 100);
+
+        /**
+         * Distinct failed checks listed in the summary event, with a few sample deal ids and values each.
+         */
+        private int summaryFailureGroups = 10;
+
+        public Sample getSuccess() { return success; }
+        public Sample getDuplicate() { return duplicate; }
+        public Sample getFailure() { return failure; }
+
+        public int getSummaryFailureGroups() { return summaryFailureGroups; }
+        public void setSummaryFailureGroups(int summaryFailureGroups) { this.summaryFailureGroups = summaryFailureGroups; }
+    }
+
+    /**
+     * Logs the first {@code first} rows of an outcome in each import, then one row in every {@code every}.
+     * Zero disables either part.
+     */
+    public static class Sample {
+
+        private long first;
+
+        private long every;
+
+        public Sample(long first, long every) {
+            this.first = first;
+            this.every = every;
+        }
+
+        public long getFirst() { return first; }
+        public void setFirst(long first) { this.first = first; }
+
+        public long getEvery() { return every; }
+        public void setEvery(long every) { this.every = every; }
+
+        public boolean logs(long nth) {
+            return nth <= first || (every > 0 && nth % every == 0);
+        }
+    }
+}
@@ -1,61 +1,254 @@
 package com.example.deals.controller;
 
 import com.example.deals.dto.DealResponse;
+import com.example.deals.dto.ImportJobResponse;
+import com.example.deals.dto.RowResultPage;
+import com.example.deals.job.ImportJob;
 import com.example.deals.parser.DealParser;
+import com.example.deals.result.FailureDigest;
+import com.example.deals.result.ImportSummary;
 import com.example.deals.result.RowResult;
 import com.example.deals.service.DealImportService;
+import com.example.deals.service.ImportJobService;
+import com.example.deals.service.ImportScheduler;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/deals")
 public class DealController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int SUMMARY_FAILURE_GROUPS = 20;
+    private static final int SUMMARY_FAILURE_SAMPLES = 5;
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final long NDJSON_FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     private final DealParser parser;
     private final DealImportService importService;
+    private final ImportJobService jobService;
+    private final ImportScheduler scheduler;
+    private final ObjectMapper objectMapper;
 
-    public DealController(DealParser parser, DealImportService importService) {
+    public DealController(DealParser parser, DealImportService importService, ImportJobService jobService,
+                          ImportScheduler scheduler, ObjectMapper objectMapper) {
         this.parser = parser;
         this.importService = importService;
+        this.jobService = jobService;
+        this.scheduler = scheduler;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Imports the upload and returns every {@link RowResult} once the whole file is done. Like the NDJSON and
+     * summary variants, it keeps no checkpoint and always starts from the first row; only
+     * {@link #submitImportJob} resumes an unfinished import of the same file.
+     */
     @PostMapping("/import")
-    public ResponseEntity<?> importDeals(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importDeals(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "false") boolean trace) {
 
-        if (file == null || file.isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "CSV file is required"));
+        ResponseEntity<?> invalid = checkUpload(file);
+        if (invalid != null) {
+            return invalid;
         }
 
-        if (!Objects.requireNonNull(file.getOriginalFilename()).toLowerCase().endsWith(".csv")) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Only CSV files are allowed"));
+        try {
+            List<RowResult> results;
+
+            // Rows are parsed lazily and persisted one by one, so the upload is never fully materialized
+            try (Stream<DealParser.RowData> rows = parser.stream(file.getInputStream())) {
+                results = importService.importRows(rows::iterator, file.getSize(), trace);
+            }
+
+            return ResponseEntity.ok(Map.of("results", results));
+
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
         }
+    }
+
+    /**
+     * Same import as {@link #importDeals}, but each {@link RowResult} is written as one NDJSON line as soon as
+     * it is produced, followed by a {@code summary} line, or an {@code error} line if the import fails midway.
+     */
+    @PostMapping(value = "/import", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importDealsNdjson(@RequestParam("file") MultipartFile file,
+                                                                   @RequestParam(defaultValue = "false") boolean trace) {
 
+        // Errors before streaming starts are plain JSON, as on the default import endpoint
+        ResponseEntity<?> invalid = checkUpload(file);
+        if (invalid != null) {
+            return json(invalid.getStatusCode(), invalid.getBody());
+        }
+
+        InputStream in;
         try {
-            // Parsing
-            var rows = parser.parse(new InputStreamReader(file.getInputStream()));
+            in = file.getInputStream();
+        } catch (IOException ex) {
+            return json(HttpStatus.INTERNAL_SERVER_ERROR, Map.of("error", ex.getMessage()));
+        }
 
-            // Persist in service for validation, deduplication & import flow
-            List<RowResult> results = importService.importRows(rows);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(StreamUtils.nonClosing(out));
+                 Stream<DealParser.RowData> rows = parser.stream(in)) {
+                json.setRootValueSeparator(null);
+                NdjsonWriter lines = new NdjsonWriter(json);
+                ImportSummary.Counter counter = new ImportSummary.Counter();
 
-            return ResponseEntity.ok(Map.of("results", results));
+                try {
+                    importService.importRows(rows::iterator, file.getSize(), trace, counter.andThen(lines));
+                    lines.accept(Map.of("summary", counter.summary()));
+                } catch (UncheckedIOException ex) {
+                    // The client went away; nothing more can be written
+                    throw ex.getCause();
+                } catch (Exception ex) {
+                    lines.accept(Map.of("error", String.valueOf(ex.getMessage()), "summary", counter.summary()));
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * Same import as {@link #importDeals}, but the response only carries totals by status and failures grouped
+     * by failed check, with a few sample deal ids and values each. No per-row result is kept.
+     */
+    @PostMapping(value = "/import", params = "mode=summary")
+    public ResponseEntity<?> importDealsSummary(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(defaultValue = "false") boolean trace) {
+
+        ResponseEntity<?> invalid = checkUpload(file);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        ImportSummary.Counter counter = new ImportSummary.Counter();
+        FailureDigest failures = new FailureDigest(SUMMARY_FAILURE_GROUPS, SUMMARY_FAILURE_SAMPLES);
+
+        try (Stream<DealParser.RowData> rows = parser.stream(file.getInputStream())) {
+            importService.importRows(rows::iterator, file.getSize(), trace, counter.andThen(failures));
 
         } catch (Exception ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", ex.getMessage()));
         }
+
+        return ResponseEntity.ok(Map.of(
+                "summary", counter.summary(),
+                "failures", failures.groups(),
+                "ungroupedFailures", failures.ungrouped()));
+    }
+
+    @PostMapping(value = "/import", params = "async=true")
+    public ResponseEntity<?> submitImportJob(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(defaultValue = "false") boolean trace) {
+
+        ResponseEntity<?> invalid = checkUpload(file);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        try {
+            ImportJob job = jobService.submit(file, trace);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/deals/import/jobs/" + job.getId()))
+                    .body(ImportJobResponse.fromJob(job));
+
+        } catch (RejectedExecutionException ex) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(scheduler.getRetryAfter().toSeconds()))
+                    .body(Map.of("error", "Import queue is full, retry later"));
+
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return jobService.find(jobId)
+                .map(ImportJobResponse::fromJob)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/import/jobs/{jobId}/results")
+    public ResponseEntity<?> getImportJobResults(@PathVariable String jobId,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        return jobService.find(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(new RowResultPage(
+                        job.getId(),
+                        page,
+                        size,
+                        job.getRowsProcessed(),
+                        job.isFinished(),
+                        job.results((int) Math.min(Integer.MAX_VALUE, (long) page * size), size))))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Exports every deal as one JSON array, written while rows are read from the database.
+     */
     @GetMapping
-    public ResponseEntity<List<DealResponse>> getAllDeals() {
-        return ResponseEntity.ok(importService.getAllDealsDto());
+    public ResponseEntity<StreamingResponseBody> getAllDeals() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(StreamUtils.nonClosing(out))) {
+                json.writeStartArray();
+                importService.exportDeals(deal -> writeValue(json, deal));
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getDealsPage(@RequestParam int limit,
+                                          @RequestParam(required = false) String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        long afterId;
+        try {
+            afterId = cursor == null ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException ex) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid cursor: " + cursor));
+        }
+
+        return ResponseEntity.ok(importService.getDealsPage(afterId, limit));
     }
 
     @GetMapping("/{dealId}")
@@ -65,6 +258,64 @@ public class DealController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Writes one JSON value per line. The first line is flushed at once and later ones at most every
+     * {@link #NDJSON_FLUSH_INTERVAL_NANOS}, so clients see progress without a network write per row.
+     */
+    private static final class NdjsonWriter implements Consumer<Object> {
+
+        private final JsonGenerator json;
+        private long lastFlush;
+        private boolean flushed;
+
+        NdjsonWriter(JsonGenerator json) {
+            this.json = json;
+        }
+
+        @Override
+        public void accept(Object value) {
+            try {
+                json.writeObject(value);
+                json.writeRaw('\n');
+                long now = System.nanoTime();
+                if (!flushed || now - lastFlush >= NDJSON_FLUSH_INTERVAL_NANOS) {
+                    json.flush();
+                    flushed = true;
+                    lastFlush = now;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> json(HttpStatusCode status, Object body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(StreamUtils.nonClosing(out), body));
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) {
+        try {
+            json.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<?> checkUpload(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "CSV file is required"));
+        }
+
+        if (!Objects.requireNonNull(file.getOriginalFilename()).toLowerCase().endsWith(".csv")) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Only CSV files are allowed"));
+        }
+
+        return null;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<?> health() {
         return ResponseEntity.ok(Map.of("status", "UP"));
@@ -0,0 +1,111 @@
+package com.example.deals.controller;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.service.ImportScheduler;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Admits import uploads through {@link ImportScheduler} before their body is read, so uploads that do not fit
+ * are neither buffered nor spooled but answered 429 with Retry-After. An upload whose
+ * {@code Content-Length} exceeds what one caller may hold would never fit, so it is answered 413 at once. The admission is held until the response completes, including responses
+ * streamed after this filter returns.
+ */
+@Component
+public class ImportAdmissionFilter extends OncePerRequestFilter {
+
+    static final String IMPORT_PATH = "/api/v1/deals/import";
+
+    private static final String REJECTED_BODY = "{\"error\":\"Too many imports in progress, retry later\"}";
+
+    private final ImportScheduler scheduler;
+    private final ImportProperties.Admission properties;
+
+    public ImportAdmissionFilter(ImportScheduler scheduler, ImportProperties properties) {
+        this.scheduler = scheduler;
+        this.properties = properties.getAdmission();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !IMPORT_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long size = request.getContentLengthLong();
+        if (size > scheduler.getMaxUploadBytes()) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "{\"error\":\"Upload exceeds the "
+                    + scheduler.getMaxUploadBytes() + " bytes one caller may import at once\"}");
+            return;
+        }
+
+        Optional<ImportScheduler.Admission> admission = scheduler.admit(caller(request), size);
+        if (admission.isEmpty()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(scheduler.getRetryAfter().toSeconds()));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, REJECTED_BODY);
+            return;
+        }
+
+        ImportScheduler.Admission admitted = admission.get();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(admitted));
+            } else {
+                admitted.close();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(body);
+    }
+
+    private String caller(HttpServletRequest request) {
+        String caller = request.getHeader(properties.getCallerHeader());
+        return caller != null && !caller.isBlank() ? caller : request.getRemoteAddr();
+    }
+
+    private record ReleaseOnComplete(ImportScheduler.Admission admission) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            admission.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
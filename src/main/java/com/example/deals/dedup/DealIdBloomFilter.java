@@ -0,0 +1,64 @@
+package com.example.deals.dedup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of dealIds. {@link #mightContain} never returns false for an id that was
+ * {@linkplain #put put}; it returns true for an absent id with roughly the configured probability as long as no
+ * more than the expected number of ids are added.
+ */
+public final class DealIdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public DealIdBloomFilter(long expectedIds, double falsePositiveRate) {
+        if (expectedIds <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedIds must be positive and falsePositiveRate in (0, 1)");
+        }
+        long m = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedIds * Math.log(2)));
+    }
+
+    public void put(String dealId) {
+        long hash = DealIdHash.hash64(dealId);
+        for (int i = 0; i < hashes; i++) {
+            long bit = bitIndex(hash, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String dealId) {
+        long hash = DealIdHash.hash64(dealId);
+        for (int i = 0; i < hashes; i++) {
+            long bit = bitIndex(hash, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    // Kirsch-Mitzenmacher double hashing: the k indexes are h1 + i * h2 over the two halves of one 64-bit hash
+    private long bitIndex(long hash, int i) {
+        long h1 = (int) hash;
+        long h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+}
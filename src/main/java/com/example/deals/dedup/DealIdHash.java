@@ -0,0 +1,31 @@
+package com.example.deals.dedup;
+
+/**
+ * 64-bit hash of a dealId, shared by the probabilistic and exact deal-id sets.
+ */
+public final class DealIdHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private DealIdHash() {
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 step so every input bit reaches both
+     * 32-bit halves.
+     */
+    public static long hash64(String dealId) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < dealId.length(); i++) {
+            h ^= dealId.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.deals.dedup;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The dealIds already seen in one upload, used to report in-file duplicates.
+ */
+@FunctionalInterface
+public interface DealIdSet {
+
+    /**
+     * Records {@code dealId}; returns false when it had already been recorded.
+     */
+    boolean add(String dealId);
+
+    /**
+     * Keeps the ids themselves. Memory grows with the id strings and one hash node per id.
+     */
+    static DealIdSet exact() {
+        Set<String> ids = new HashSet<>();
+        return ids::add;
+    }
+
+    /**
+     * Keeps 96 bits of hash per id in primitive arrays, starting with room for {@code expectedIds}. Two distinct
+     * ids whose hashes both collide are taken for the same id.
+     */
+    static DealIdSet hashed(long expectedIds) {
+        return new HashedDealIdSet(expectedIds);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.deals.dedup;
+
+/**
+ * Open-addressing set of dealIds that stores no strings: each slot holds the id's {@link DealIdHash#hash64 64-bit
+ * hash} plus its {@link String#hashCode()} as an independent 32-bit check, 12 bytes per slot. An id is reported as
+ * already present only when both match, which for distinct ids happens with probability around n^2 / 2^97 (about
+ * 10^-15 for 20 million ids). The stored id is never compared, so such a collision reports a new id as a
+ * duplicate; that is why {@link DealIdSet#exact()} is the default. The table starts with room for the expected id
+ * count and doubles whenever it is three quarters full.
+ */
+public final class HashedDealIdSet implements DealIdSet {
+
+    private static final double MAX_LOAD = 0.75;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // 0 marks an empty slot; a real hash of 0 is stored as 1
+    private long[] hashes;
+    private int[] checks;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public HashedDealIdSet(long expectedIds) {
+        allocate(capacityFor(expectedIds));
+    }
+
+    @Override
+    public boolean add(String dealId) {
+        long hash = DealIdHash.hash64(dealId);
+        if (hash == 0) {
+            hash = 1;
+        }
+        int check = dealId.hashCode();
+
+        int i = slot(hash);
+        while (hashes[i] != 0) {
+            if (hashes[i] == hash && checks[i] == check) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        hashes[i] = hash;
+        checks[i] = check;
+        if (++size > resizeAt) {
+            grow();
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by the table, independent of the id lengths.
+     */
+    public long footprintBytes() {
+        return hashes.length * (long) (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        if (hashes.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Too many deal ids in one upload: " + size);
+        }
+        long[] oldHashes = hashes;
+        int[] oldChecks = checks;
+        allocate(hashes.length * 2);
+
+        for (int j = 0; j < oldHashes.length; j++) {
+            if (oldHashes[j] != 0) {
+                int i = slot(oldHashes[j]);
+                while (hashes[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                hashes[i] = oldHashes[j];
+                checks[i] = oldChecks[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new long[capacity];
+        checks = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private static int capacityFor(long expectedIds) {
+        long needed = (long) Math.ceil(Math.max(expectedIds, 1) / MAX_LOAD);
+        if (needed >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.deals.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of deals. Pass {@code nextCursor} back as {@code cursor} to fetch the next page;
+ * it is null on the last page.
+ */
+public record DealPage(List<DealResponse> deals, String nextCursor) {}
@@ -1,6 +1,7 @@
 package com.example.deals.dto;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 public class DealResponse {
 
@@ -18,6 +19,13 @@ public class DealResponse {
         this.amount = amount;
     }
 
+    /**
+     * Used by JPQL constructor expressions so exports are read as DTOs rather than managed entities.
+     */
+    public DealResponse(String dealId, String fromCurrency, String toCurrency, Instant timestamp, BigDecimal amount) {
+        this(dealId, fromCurrency, toCurrency, timestamp.toString(), amount);
+    }
+
     public String getDealId() { return dealId; }
     public String getFromCurrency() { return fromCurrency; }
     public String getToCurrency() { return toCurrency; }
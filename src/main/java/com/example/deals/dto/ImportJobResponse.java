@@ -0,0 +1,51 @@
+package com.example.deals.dto;
+
+import com.example.deals.job.ImportJob;
+
+import java.time.Instant;
+
+public record ImportJobResponse(
+        String jobId,
+        String status,
+        String filename,
+        long sizeBytes,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        int resumedAfterRow,
+        long rowsParsed,
+        long rowsProcessed,
+        long rowsPersisted,
+        long duplicates,
+        long failures,
+        double parsedPerSecond,
+        double processedPerSecond,
+        double persistedPerSecond,
+        String error
+) {
+
+    public static ImportJobResponse fromJob(ImportJob job) {
+        long parsed = job.getRowsParsed();
+        long processed = job.getRowsProcessed();
+        long persisted = job.getSuccesses();
+        return new ImportJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getFilename(),
+                job.getSizeBytes(),
+                job.getSubmittedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getResumedAfterRow(),
+                parsed,
+                processed,
+                persisted,
+                job.getDuplicates(),
+                job.getFailures(),
+                job.perSecond(parsed),
+                job.perSecond(processed),
+                job.perSecond(persisted),
+                job.getError()
+        );
+    }
+}
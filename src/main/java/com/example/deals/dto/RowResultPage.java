@@ -0,0 +1,14 @@
+package com.example.deals.dto;
+
+import com.example.deals.result.RowResult;
+
+import java.util.List;
+
+public record RowResultPage(
+        String jobId,
+        int page,
+        int size,
+        long totalElements,
+        boolean complete,
+        List<RowResult> results
+) {}
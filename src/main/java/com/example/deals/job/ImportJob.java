@@ -0,0 +1,138 @@
+package com.example.deals.job;
+
+import com.example.deals.result.RowResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one asynchronous import. Counters and results are written by the worker thread
+ * and read concurrently by the polling endpoints. Results are spooled to a temp file rather than kept in heap;
+ * finishing the job closes its writer and {@link #discard()} deletes it.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String filename;
+    private final long sizeBytes;
+    private final String fileHash;
+    private final boolean traced;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile int resumedAfterRow;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private final ResultSpool results = new ResultSpool();
+
+    public ImportJob(String id, String filename, long sizeBytes) {
+        this(id, filename, sizeBytes, null, false);
+    }
+
+    /**
+     * {@code fileHash} identifies the upload for resuming from a checkpoint and may be null; {@code traced} jobs
+     * log every row with its parsed fields instead of a sample.
+     */
+    public ImportJob(String id, String filename, long sizeBytes, String fileHash, boolean traced) {
+        this.id = id;
+        this.filename = filename;
+        this.sizeBytes = sizeBytes;
+        this.fileHash = fileHash;
+        this.traced = traced;
+    }
+
+    public void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void markCompleted() {
+        results.finish();
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void markFailed(String message) {
+        results.finish();
+        finishedAt = Instant.now();
+        error = message;
+        status = Status.FAILED;
+    }
+
+    /**
+     * Rows up to {@code row} were committed by an earlier run of the same file and are not imported again.
+     */
+    public void resumedAfter(int row) {
+        resumedAfterRow = row;
+    }
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void record(RowResult result) {
+        switch (result.status()) {
+            case "SUCCESS" -> successes.incrementAndGet();
+            case "DUPLICATE" -> duplicates.incrementAndGet();
+            default -> failures.incrementAndGet();
+        }
+        results.append(result);
+    }
+
+    public List<RowResult> results(int offset, int limit) {
+        return results.read(offset, limit);
+    }
+
+    /**
+     * Deletes the spooled results once the job is no longer kept for polling.
+     */
+    public void discard() {
+        results.discard();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Throughput since the job started, measured up to now while running and up to completion afterwards.
+     */
+    public double perSecond(long count) {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return count * 1000.0 / millis;
+    }
+
+    public String getId() { return id; }
+    public String getFilename() { return filename; }
+    public long getSizeBytes() { return sizeBytes; }
+    public String getFileHash() { return fileHash; }
+    public boolean isTraced() { return traced; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public Status getStatus() { return status; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public int getResumedAfterRow() { return resumedAfterRow; }
+
+    public long getRowsParsed() { return rowsParsed.get(); }
+    public long getRowsProcessed() { return successes.get() + duplicates.get() + failures.get(); }
+    public long getSuccesses() { return successes.get(); }
+    public long getDuplicates() { return duplicates.get(); }
+    public long getFailures() { return failures.get(); }
+}
@@ -0,0 +1,167 @@
+package com.example.deals.job;
+
+import com.example.deals.result.RowResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row results of one job, appended to a temp file so a multi-million-row import keeps only a sparse index in
+ * heap. The file offset of every {@value #INDEX_EVERY}th result is kept, so a page is read by seeking to the
+ * nearest indexed result and skipping fewer than that many records. The writer is closed by {@link #finish()}
+ * when the job ends, and each read opens its own channel, so retained jobs hold no file descriptor.
+ */
+final class ResultSpool {
+
+    static final int INDEX_EVERY = 1024;
+
+    private static final int NULL = -1;
+
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(128);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+
+    private Path file;
+    private OutputStream out;
+    private long position;
+    private long[] offsets = new long[16];
+    private int count;
+    private boolean closed;
+    private boolean discarded;
+
+    synchronized void append(RowResult result) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (out == null) {
+                file = Files.createTempFile("deals-import-results-", ".bin");
+                out = new BufferedOutputStream(Files.newOutputStream(file));
+            }
+            if (count % INDEX_EVERY == 0) {
+                int slot = count / INDEX_EVERY;
+                if (slot == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, slot * 2);
+                }
+                offsets[slot] = position;
+            }
+            record.reset();
+            writeString(recordOut, result.status());
+            writeString(recordOut, result.dealId());
+            writeString(recordOut, result.message());
+            record.writeTo(out);
+            position += record.size();
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized List<RowResult> read(int offset, int limit) {
+        if (discarded || offset >= count) {
+            return List.of();
+        }
+        int end = (int) Math.min(count, (long) offset + limit);
+        int slot = offset / INDEX_EVERY;
+        try {
+            if (out != null) {
+                out.flush();
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(offsets[slot]);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                for (int skipped = slot * INDEX_EVERY; skipped < offset; skipped++) {
+                    readResult(in);
+                }
+                List<RowResult> page = new ArrayList<>(end - offset);
+                for (int i = offset; i < end; i++) {
+                    page.add(readResult(in));
+                }
+                return page;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes and closes the writer once no more results will come; the results stay readable and later appends
+     * are dropped.
+     */
+    synchronized void finish() {
+        closed = true;
+        closeWriter();
+    }
+
+    /**
+     * Deletes the file; later reads return nothing and later appends are dropped.
+     */
+    synchronized void discard() {
+        closed = true;
+        discarded = true;
+        closeWriter();
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeWriter() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            out = null;
+        }
+    }
+
+    private static RowResult readResult(DataInputStream in) throws IOException {
+        String status = readString(in);
+        String dealId = readString(in);
+        String message = readString(in);
+        return new RowResult(dealId, status, message);
+    }
+
+    // Length-prefixed UTF-8 rather than writeUTF, which fails on strings over 64 KB such as a garbage dealId
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.deals.model;
 
 import com.example.deals.dto.DealRequest;
+import com.example.deals.validation.ValidatedDeal;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Objects;
@@ -10,8 +14,20 @@ import java.util.Objects;
 @Table(name = "deals", uniqueConstraints = @UniqueConstraint(columnNames = {"deal_id"}))
 public class Deal {
 
+    /**
+     * Ids reserved per sequence call; must match the INCREMENT BY of {@code deals_id_seq} in schema.sql.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence ids let Hibernate defer and batch inserts, which IDENTITY columns rule out. The pooled-lo optimizer
+    // is pinned here rather than in config: DealIdAllocator relies on nextval v reserving v up to v + 49, and the
+    // default pooled optimizer would hand out v - 49 up to v instead, overlapping the allocator's blocks
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "deals_id_seq")
+    @GenericGenerator(name = "deals_id_seq", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "deals_id_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")})
     private Long id;
 
     @Column(name = "deal_id", nullable = false, unique = true)
@@ -57,6 +73,17 @@ public class Deal {
         this.amount = parsedAmount;
     }
 
+    /**
+     * Builds the entity from an already validated row without parsing anything again.
+     */
+    public Deal(ValidatedDeal deal) {
+        this.dealId = deal.dealId();
+        this.fromCurrency = deal.fromCurrency();
+        this.toCurrency = deal.toCurrency();
+        this.dealTimestamp = deal.timestamp();
+        this.amount = deal.amount();
+    }
+
     public Long getId() {
         return id;
     }
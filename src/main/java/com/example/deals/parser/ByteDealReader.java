@@ -0,0 +1,259 @@
+package com.example.deals.parser;
+
+import com.example.deals.dto.DealRequest;
+import com.opencsv.CSVParser;
+import com.opencsv.ICSVParser;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Byte-level reader for the fixed five-column deal layout. Lines are split and trimmed directly in the input
+ * buffer, so the only objects created per plain record are the five field strings and the {@link DealRequest}.
+ * Lines containing a quote or backslash, or continuing a quoted field, are handed to OpenCSV's own
+ * {@link CSVParser} so quoting, escaping and error messages stay identical to {@link com.opencsv.CSVReader}.
+ */
+final class ByteDealReader implements DealParser.RecordSource {
+
+    private static final int COLUMNS = 5;
+    private static final int MAX_ERROR_WIDTH = 100;
+
+    private final InputStream in;
+    private final CSVParser csvParser = new CSVParser();
+
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    // Bytes discarded from the front of the buffer so far, to report absolute offsets
+    private long base;
+
+    // Start/end offsets of the current line, and of each trimmed field within it
+    private int lineStart;
+    private int lineEnd;
+    private final int[] fieldStart = new int[COLUMNS];
+    private final int[] fieldEnd = new int[COLUMNS];
+
+    ByteDealReader(InputStream in) {
+        this.in = in;
+        this.buf = new byte[64 * 1024];
+    }
+
+    /**
+     * Reads records straight out of {@code data}, which must hold whole records.
+     */
+    ByteDealReader(byte[] data) {
+        this.in = InputStream.nullInputStream();
+        this.buf = data;
+        this.limit = data.length;
+        this.eof = true;
+    }
+
+    /**
+     * Absolute offset of the first byte after the last record read.
+     */
+    long position() {
+        return base + pos;
+    }
+
+    @Override
+    public boolean skip() throws IOException {
+        return readRecord() != null;
+    }
+
+    @Override
+    public DealParser.RowData next(int rowNum) throws IOException {
+        Object record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        if (record instanceof String[] fields) {
+            return DealParser.toRowData(rowNum, fields);
+        }
+        return new DealParser.RowData(rowNum, toRequest((Integer) record));
+    }
+
+    /**
+     * Reads one logical record. Returns the field count for a plain line whose fields are left in
+     * {@link #fieldStart}/{@link #fieldEnd}, the parsed fields for a line that needed OpenCSV, or null at EOF.
+     */
+    private Object readRecord() throws IOException {
+        if (!nextLine()) {
+            return null;
+        }
+
+        if (!needsCsvParser()) {
+            return splitPlainLine();
+        }
+
+        String[] fields = null;
+        do {
+            String[] parsed = csvParser.parseLineMulti(decode(lineStart, lineEnd));
+            fields = fields == null ? parsed : concat(fields, parsed);
+            if (!csvParser.isPending()) {
+                return fields;
+            }
+        } while (nextLine());
+
+        throw new CsvMalformedLineException(String.format(
+                ResourceBundle.getBundle(ICSVParser.DEFAULT_BUNDLE_NAME, Locale.getDefault()).getString("unterminated.quote"),
+                StringUtils.abbreviate(csvParser.getPendingText(), MAX_ERROR_WIDTH)), 0, csvParser.getPendingText());
+    }
+
+    private boolean needsCsvParser() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            byte b = buf[i];
+            if (b == '"' || b == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int splitPlainLine() {
+        int fields = 0;
+        int start = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buf[i] == ',') {
+                if (fields < COLUMNS) {
+                    int s = start;
+                    int e = i;
+                    while (s < e && (buf[s] & 0xFF) <= ' ') s++;
+                    while (e > s && (buf[e - 1] & 0xFF) <= ' ') e--;
+                    fieldStart[fields] = s;
+                    fieldEnd[fields] = e;
+                }
+                fields++;
+                start = i + 1;
+            }
+        }
+        return fields;
+    }
+
+    private DealRequest toRequest(int fields) {
+        DealRequest req = new DealRequest();
+        req.setDealId(dealId(fields));
+        req.setFromCurrency(fields > 1 ? decode(fieldStart[1], fieldEnd[1]) : "");
+        req.setToCurrency(fields > 2 ? decode(fieldStart[2], fieldEnd[2]) : "");
+        req.setTimestamp(fields > 3 ? decode(fieldStart[3], fieldEnd[3]) : "");
+        req.setAmountStr(fields > 4 ? decode(fieldStart[4], fieldEnd[4]) : "");
+        return req;
+    }
+
+    private String dealId(int fields) {
+        int s = fieldStart[0];
+        int e = fieldEnd[0];
+        for (int i = s; i < e; i++) {
+            if (buf[i] < 0) {
+                // Non-ASCII: defer to String semantics so Unicode whitespace is treated exactly like the OpenCSV path
+                String raw = decode(lineStart, rawFieldZeroEnd());
+                return raw.isBlank() ? "UNKNOWN" : raw.trim();
+            }
+        }
+        if (s == e) {
+            return isBlankAscii(lineStart, rawFieldZeroEnd()) ? "UNKNOWN" : "";
+        }
+        return decode(s, e);
+    }
+
+    private int rawFieldZeroEnd() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (buf[i] == ',') {
+                return i;
+            }
+        }
+        return lineEnd;
+    }
+
+    private boolean isBlankAscii(int s, int e) {
+        for (int i = s; i < e; i++) {
+            if (!Character.isWhitespace(buf[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int s, int e) {
+        for (int i = s; i < e; i++) {
+            if (buf[i] < 0) {
+                return new String(buf, s, e - s, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(buf, s, e - s, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Advances to the next line, terminated like {@link java.io.BufferedReader#readLine()} by \n, \r or \r\n.
+     */
+    private boolean nextLine() throws IOException {
+        int scan = pos;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                byte b = buf[i];
+                if (b == '\n' || b == '\r') {
+                    if (b == '\r' && i + 1 == limit && !eof) {
+                        // Need the next byte to know whether this is \r\n
+                        scan = i;
+                        break;
+                    }
+                    lineStart = pos;
+                    lineEnd = i;
+                    pos = (b == '\r' && i + 1 < limit && buf[i + 1] == '\n') ? i + 2 : i + 1;
+                    return true;
+                }
+                scan = i + 1;
+            }
+
+            if (eof) {
+                if (pos == limit) {
+                    return false;
+                }
+                lineStart = pos;
+                lineEnd = limit;
+                pos = limit;
+                return true;
+            }
+
+            int consumed = pos;
+            fill();
+            scan -= consumed;
+        }
+    }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            base += pos;
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private static String[] concat(String[] a, String[] b) {
+        String[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -1,54 +1,374 @@
 package com.example.deals.parser;
 
+import com.example.deals.config.ImportProperties;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.exception.CsvParseException;
+import com.example.deals.validation.ValidationOutcome;
 import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
 public class DealParser {
 
-    public record RowData(int rowNum, DealRequest request) {}
+    /**
+     * A parsed row. {@code validation} is filled in when the row was validated while parsing, null otherwise.
+     */
+    public record RowData(int rowNum, DealRequest request, ValidationOutcome validation) {
+
+        public RowData(int rowNum, DealRequest request) {
+            this(rowNum, request, null);
+        }
+
+        public RowData withValidation(ValidationOutcome outcome) {
+            return new RowData(rowNum, request, outcome);
+        }
+    }
+
+    /**
+     * A byte range of an upload holding whole records, starting at row {@code firstRowNum}.
+     */
+    public record Chunk(long offset, int length, int firstRowNum) {}
+
+    private record ParsedChunk(List<RowData> rows, CsvParseException error) {}
+
+    /**
+     * How raw upload bytes are split into records. Both produce identical rows and errors.
+     */
+    public enum Tokenizer { OPENCSV, BYTES }
+
+    /**
+     * One CSV record at a time, header included.
+     */
+    interface RecordSource extends Closeable {
+        boolean skip() throws Exception;
+
+        RowData next(int rowNum) throws Exception;
+    }
 
     private static final Logger log = LoggerFactory.getLogger(DealParser.class);
 
+    private final Tokenizer tokenizer;
+    private final ImportProperties.Parallel parallel;
+    private volatile ForkJoinPool pool;
+
+    public DealParser() {
+        this(new ImportProperties());
+    }
+
+    @Autowired
+    public DealParser(ImportProperties properties) {
+        this(properties.getTokenizer(), properties.getParallel());
+    }
+
+    public DealParser(Tokenizer tokenizer) {
+        this(tokenizer, new ImportProperties().getParallel());
+    }
+
+    public DealParser(Tokenizer tokenizer, ImportProperties.Parallel parallel) {
+        this.tokenizer = tokenizer;
+        this.parallel = parallel;
+    }
+
     public List<RowData> parse(Reader reader) {
+        try (Stream<RowData> rows = stream(reader)) {
+            return rows.toList();
+        }
+    }
+
+    /**
+     * Lazily parses the CSV one record at a time. Nothing is read until the stream is consumed,
+     * and the underlying reader is closed when the stream is closed.
+     */
+    public Stream<RowData> stream(Reader reader) {
+        return stream(new OpenCsvSource(new CSVReader(reader)));
+    }
+
+    /**
+     * Streams a UTF-8 upload using the configured {@link Tokenizer}.
+     */
+    public Stream<RowData> stream(InputStream in) {
+        return switch (tokenizer) {
+            case OPENCSV -> stream(new InputStreamReader(in, StandardCharsets.UTF_8));
+            case BYTES -> stream(new ByteDealReader(in));
+        };
+    }
+
+    /**
+     * Parses a spooled upload on a fork-join pool. The file is first cut into chunks at record boundaries, then
+     * chunks are parsed, and each row passed through {@code perRow}, concurrently. Rows come out in file order
+     * with the same row numbers and errors as {@link #stream(InputStream)}; only a bounded number of chunks are
+     * held in memory ahead of the consumer.
+     */
+    public Stream<RowData> streamParallel(Path upload, UnaryOperator<RowData> perRow) {
+        ChunkIterator rows = new ChunkIterator(upload, perRow);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(rows::cancel);
+    }
+
+    /**
+     * Finds record boundaries with a single byte scan. Only lines containing quotes or backslashes are run through
+     * the CSV parser, so a quoted field spanning several lines never straddles two chunks. A malformed record
+     * ends the scan and is left at the start of the last chunk, where parsing reports it after the rows before it.
+     */
+    public List<Chunk> split(Path upload) throws IOException {
+        long target = parallel.getChunkSize().toBytes();
+        List<Chunk> chunks = new ArrayList<>();
+
+        try (ByteDealReader reader = new ByteDealReader(Files.newInputStream(upload))) {
+            reader.skip();
+            long start = reader.position();
+            int firstRowNum = 2;
+            int rows = 0;
+
+            try {
+                while (reader.skip()) {
+                    rows++;
+                    if (reader.position() - start >= target) {
+                        chunks.add(new Chunk(start, Math.toIntExact(reader.position() - start), firstRowNum));
+                        start = reader.position();
+                        firstRowNum += rows;
+                        rows = 0;
+                    }
+                }
+            } catch (CsvMalformedLineException e) {
+                // Fall through: the tail from the last good boundary becomes the final chunk
+            }
+
+            long end = Files.size(upload);
+            if (end > start) {
+                chunks.add(new Chunk(start, Math.toIntExact(end - start), firstRowNum));
+            }
+        }
+
+        return chunks;
+    }
+
+    private ParsedChunk parseChunk(Path upload, Chunk chunk, UnaryOperator<RowData> perRow) {
         List<RowData> rows = new ArrayList<>();
+        int rowNum = chunk.firstRowNum();
 
-        try (CSVReader csvReader = new CSVReader(reader)) {
-            String[] line;
-            int rowNum = 1;
-            csvReader.readNext();
+        try (FileChannel channel = FileChannel.open(upload)) {
+            ByteBuffer bytes = ByteBuffer.allocate(chunk.length());
+            while (bytes.hasRemaining() && channel.read(bytes, chunk.offset() + bytes.position()) >= 0) {
+                // keep reading until the chunk is complete
+            }
 
-            while ((line = csvReader.readNext()) != null) {
+            ByteDealReader reader = new ByteDealReader(bytes.array());
+            RowData row;
+            while ((row = reader.next(rowNum)) != null) {
+                rows.add(perRow.apply(row));
                 rowNum++;
+            }
+            return new ParsedChunk(rows, null);
+
+        } catch (Exception e) {
+            log.error("CSV read failed after row {}: {}", rowNum - 1, e.getMessage());
+            return new ParsedChunk(rows, new CsvParseException("Failed to read CSV: " + e.getMessage()));
+        }
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool p = pool;
+        if (p == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(parallel.effectiveThreads());
+                }
+                p = pool;
+            }
+        }
+        return p;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Stream<RowData> stream(RecordSource source) {
+        return StreamSupport.stream(new RowSpliterator(source), false)
+                .onClose(() -> close(source));
+    }
+
+    static RowData toRowData(int rowNum, String[] line) {
+        String dealId = (line.length == 0 || line[0].isBlank()) ? "UNKNOWN" : line[0].trim();
+        String fromCurrency = line.length > 1 ? line[1].trim() : "";
+        String toCurrency = line.length > 2 ? line[2].trim() : "";
+        String timestamp = line.length > 3 ? line[3].trim() : "";
+        String amountStr = line.length > 4 ? line[4].trim() : "";
+
+        DealRequest req = new DealRequest();
+        req.setDealId(dealId);
+        req.setFromCurrency(fromCurrency);
+        req.setToCurrency(toCurrency);
+        req.setTimestamp(timestamp);
+        req.setAmountStr(amountStr);
+
+        return new RowData(rowNum, req);
+    }
+
+    private static void close(Closeable source) {
+        try {
+            source.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record OpenCsvSource(CSVReader csvReader) implements RecordSource {
+
+        @Override
+        public boolean skip() throws Exception {
+            return csvReader.readNext() != null;
+        }
+
+        @Override
+        public RowData next(int rowNum) throws Exception {
+            String[] line = csvReader.readNext();
+            return line == null ? null : toRowData(rowNum, line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            csvReader.close();
+        }
+    }
+
+    private final class ChunkIterator implements Iterator<RowData> {
 
-                String dealId = (line.length == 0 || line[0].isBlank()) ? "UNKNOWN" : line[0].trim();
-                String fromCurrency = line.length > 1 ? line[1].trim() : "";
-                String toCurrency = line.length > 2 ? line[2].trim() : "";
-                String timestamp = line.length > 3 ? line[3].trim() : "";
-                String amountStr = line.length > 4 ? line[4].trim() : "";
+        private final Path upload;
+        private final UnaryOperator<RowData> perRow;
+        private final Deque<ForkJoinTask<ParsedChunk>> inFlight = new ArrayDeque<>();
 
-                DealRequest req = new DealRequest();
-                req.setDealId(dealId);
-                req.setFromCurrency(fromCurrency);
-                req.setToCurrency(toCurrency);
-                req.setTimestamp(timestamp);
-                req.setAmountStr(amountStr);
+        private List<Chunk> chunks;
+        private int nextChunk;
+        private Iterator<RowData> current = Collections.emptyIterator();
+        private CsvParseException error;
 
-                rows.add(new RowData(rowNum, req));
+        ChunkIterator(Path upload, UnaryOperator<RowData> perRow) {
+            this.upload = upload;
+            this.perRow = perRow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (error != null) {
+                    throw error;
+                }
+                if (chunks == null) {
+                    chunks = splitOrFail();
+                }
+                submitAhead();
+                ForkJoinTask<ParsedChunk> task = inFlight.poll();
+                if (task == null) {
+                    return false;
+                }
+                ParsedChunk parsed = task.join();
+                current = parsed.rows().iterator();
+                error = parsed.error();
+                submitAhead();
             }
+            return true;
+        }
 
-        } catch (Exception e) {
-            throw new CsvParseException("Failed to read CSV: " + e.getMessage());
+        @Override
+        public RowData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<Chunk> splitOrFail() {
+            try {
+                return split(upload);
+            } catch (Exception e) {
+                log.error("CSV read failed before first row: {}", e.getMessage());
+                throw new CsvParseException("Failed to read CSV: " + e.getMessage());
+            }
+        }
+
+        private void submitAhead() {
+            int window = parallel.effectiveThreads() * 2;
+            while (inFlight.size() < window && nextChunk < chunks.size()) {
+                Chunk chunk = chunks.get(nextChunk++);
+                inFlight.add(pool().submit(() -> parseChunk(upload, chunk, perRow)));
+            }
         }
 
-        return rows;
+        void cancel() {
+            inFlight.forEach(task -> task.cancel(true));
+            inFlight.clear();
+        }
+    }
+
+    private static final class RowSpliterator extends Spliterators.AbstractSpliterator<RowData> {
+
+        private final RecordSource source;
+        private boolean headerSkipped;
+        private int rowNum = 1;
+
+        RowSpliterator(RecordSource source) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RowData> action) {
+            RowData row;
+            try {
+                if (!headerSkipped) {
+                    source.skip();
+                    headerSkipped = true;
+                }
+                row = source.next(rowNum + 1);
+            } catch (Exception e) {
+                log.error("CSV read failed after row {}: {}", rowNum, e.getMessage());
+                throw new CsvParseException("Failed to read CSV: " + e.getMessage());
+            }
+
+            if (row == null) {
+                return false;
+            }
+
+            rowNum++;
+            action.accept(row);
+            return true;
+        }
     }
-}
\ No newline at end of file
+}
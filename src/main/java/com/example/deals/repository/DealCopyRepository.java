@@ -0,0 +1,116 @@
+package com.example.deals.repository;
+
+import com.example.deals.model.Deal;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk ingest through the PostgreSQL COPY protocol: deals are streamed into a transaction-scoped staging table
+ * and merged into {@code deals} with a single statement that skips deal IDs already present.
+ */
+@Repository
+public class DealCopyRepository {
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS deals_staging (
+              id BIGINT NOT NULL,
+              deal_id VARCHAR NOT NULL,
+              from_currency VARCHAR(3) NOT NULL,
+              to_currency VARCHAR(3) NOT NULL,
+              deal_timestamp TIMESTAMPTZ NOT NULL,
+              amount NUMERIC(19,2) NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_SQL =
+            "COPY deals_staging (id, deal_id, from_currency, to_currency, deal_timestamp, amount) FROM STDIN (FORMAT csv)";
+
+    private static final String MERGE_SQL = """
+            INSERT INTO deals (id, deal_id, from_currency, to_currency, deal_timestamp, amount)
+            SELECT id, deal_id, from_currency, to_currency, deal_timestamp, amount FROM deals_staging
+            ON CONFLICT (deal_id) DO NOTHING
+            RETURNING deal_id""";
+
+    private final JdbcTemplate jdbc;
+    private final DealIdAllocator ids;
+
+    public DealCopyRepository(JdbcTemplate jdbc, DealIdAllocator ids) {
+        this.jdbc = jdbc;
+        this.ids = ids;
+    }
+
+    /**
+     * Copies the deals into staging and merges them, returning the deal IDs that were actually inserted.
+     * Any deal not in the returned set already existed in the table. Ids come from {@link DealIdAllocator}.
+     */
+    @Transactional
+    public Set<String> copyAndMerge(List<Deal> deals) {
+        return jdbc.execute((ConnectionCallback<Set<String>>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute(CREATE_STAGING_SQL);
+            }
+            copy(con, deals, ids.allocate(deals.size()));
+            return merge(con);
+        });
+    }
+
+    private void copy(Connection con, List<Deal> deals, long[] dealIds) throws SQLException {
+        CopyIn copyIn = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder line = new StringBuilder(64);
+            int row = 0;
+            for (Deal deal : deals) {
+                line.setLength(0);
+                line.append(dealIds[row++]).append(',');
+                appendCsvField(line, deal.getDealId()).append(',')
+                        .append(deal.getFromCurrency()).append(',')
+                        .append(deal.getToCurrency()).append(',')
+                        .append(deal.getDealTimestamp()).append(',')
+                        .append(deal.getAmount().toPlainString()).append('\n');
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private Set<String> merge(Connection con) throws SQLException {
+        Set<String> inserted = new HashSet<>();
+        try (PreparedStatement ps = con.prepareStatement(MERGE_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                inserted.add(rs.getString(1));
+            }
+        }
+        return inserted;
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.deals.repository;
+
+import com.example.deals.model.Deal;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deal ids for the JDBC and COPY writers, reserved from {@code deals_id_seq} the same way Hibernate's pooled-lo
+ * optimizer does for the JPA writer: each {@code nextval} returning {@code v} reserves {@code v} up to
+ * {@code v + Deal.ID_ALLOCATION_SIZE - 1}. Every writer therefore uses whole blocks and never collides with the
+ * others. The rest of a block carries over to the next call, so single-row inserts do not burn a block each.
+ * <p>
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so virtual threads waiting on it, or on the
+ * sequence round trip made while holding it, unmount.
+ */
+@Repository
+public class DealIdAllocator {
+
+    private static final String NEXT_BLOCKS_SQL = "SELECT nextval('deals_id_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // The unused rest of the last block: ids next up to, not including, end
+    private long next;
+    private long end;
+
+    public DealIdAllocator(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Reserves {@code count} ids, fetching all the blocks they need in one round trip.
+     */
+    public long[] allocate(int count) {
+        long[] ids = new long[count];
+        lock.lock();
+        try {
+            int filled = take(ids, 0);
+            if (filled < count) {
+                int blocks = (count - filled + Deal.ID_ALLOCATION_SIZE - 1) / Deal.ID_ALLOCATION_SIZE;
+                List<Long> starts = jdbc.queryForList(NEXT_BLOCKS_SQL, Long.class, blocks);
+                for (long start : starts) {
+                    next = start;
+                    end = start + Deal.ID_ALLOCATION_SIZE;
+                    filled = take(ids, filled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ids;
+    }
+
+    private int take(long[] ids, int filled) {
+        while (filled < ids.length && next < end) {
+            ids[filled++] = next++;
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.deals.repository;
+
+import com.example.deals.model.Deal;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+public class DealJdbcRepository {
+
+    private static final String FIND_EXISTING_SQL =
+            "SELECT deal_id FROM deals WHERE deal_id IN (:dealIds)";
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM deals";
+
+    private static final String ALL_IDS_SQL = "SELECT deal_id FROM deals";
+
+    private static final int ID_FETCH_SIZE = 10_000;
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO deals (id, deal_id, from_currency, to_currency, deal_timestamp, amount) VALUES %s"
+                    + " ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id";
+
+    // Six bind parameters per row keeps a full statement far below PostgreSQL's 65535 parameter limit
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private static final String FULL_INSERT_IF_ABSENT_SQL = insertIfAbsentSql(ROWS_PER_STATEMENT);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final DealIdAllocator ids;
+
+    public DealJdbcRepository(NamedParameterJdbcTemplate jdbc, DealIdAllocator ids) {
+        this.jdbc = jdbc;
+        this.ids = ids;
+    }
+
+    public Set<String> findExistingDealIds(Collection<String> dealIds) {
+        if (dealIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.queryForList(FIND_EXISTING_SQL, Map.of("dealIds", dealIds), String.class));
+    }
+
+    public long countDeals() {
+        Long count = jdbc.getJdbcTemplate().queryForObject(COUNT_SQL, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Hands every stored dealId to {@code action}, reading through a cursor so the ids are never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void forEachDealId(Consumer<String> action) {
+        jdbc.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(ALL_IDS_SQL);
+            ps.setFetchSize(ID_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(rs.getString(1)));
+    }
+
+    /**
+     * Inserts the deals not stored yet and returns the dealIds actually inserted. A deal missing from the result
+     * already existed, whether it was stored before or inserted concurrently by another import: the unique index
+     * decides, so there is no check-then-insert race. Rows are written in dealId order so concurrent imports of
+     * overlapping files take row locks in the same order and cannot deadlock. Runs in one transaction, so any
+     * other failure leaves nothing behind and the caller can retry row by row. Ids come from
+     * {@link DealIdAllocator}; those of rows that turn out to exist are skipped, as a sequence default would.
+     */
+    @Transactional
+    public Set<String> insertAllIfAbsent(List<Deal> deals) {
+        List<Deal> ordered = deals.stream().sorted(Comparator.comparing(Deal::getDealId)).toList();
+        long[] dealIds = ids.allocate(ordered.size());
+        Set<String> inserted = new HashSet<>();
+
+        for (int from = 0; from < ordered.size(); from += ROWS_PER_STATEMENT) {
+            int first = from;
+            List<Deal> rows = ordered.subList(from, Math.min(from + ROWS_PER_STATEMENT, ordered.size()));
+            String sql = rows.size() == ROWS_PER_STATEMENT ? FULL_INSERT_IF_ABSENT_SQL : insertIfAbsentSql(rows.size());
+
+            jdbc.getJdbcTemplate().query(sql, ps -> {
+                int i = 1;
+                int row = first;
+                for (Deal deal : rows) {
+                    ps.setLong(i++, dealIds[row++]);
+                    ps.setString(i++, deal.getDealId());
+                    ps.setString(i++, deal.getFromCurrency());
+                    ps.setString(i++, deal.getToCurrency());
+                    ps.setTimestamp(i++, Timestamp.from(deal.getDealTimestamp()));
+                    ps.setBigDecimal(i++, deal.getAmount());
+                }
+            }, (RowCallbackHandler) rs -> inserted.add(rs.getString(1)));
+        }
+        return inserted;
+    }
+
+    /**
+     * Single-row {@link #insertAllIfAbsent}: true when the deal was inserted, false when its dealId already exists.
+     */
+    public boolean insertIfAbsent(Deal deal) {
+        return !insertAllIfAbsent(List.of(deal)).isEmpty();
+    }
+
+    private static String insertIfAbsentSql(int rows) {
+        return INSERT_IF_ABSENT_SQL.formatted(String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?, ?, ?)")));
+    }
+}
@@ -1,10 +1,29 @@
 package com.example.deals.repository;
 
+import com.example.deals.dto.DealResponse;
 import com.example.deals.model.Deal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DealRepository extends JpaRepository<Deal, Long> {
     Optional<Deal> findByDealId(String dealId);
-}
\ No newline at end of file
+
+    List<Deal> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    /**
+     * Every deal in id order, read as unmanaged DTOs through a server-side cursor. Must be consumed inside a
+     * transaction for the fetch size to take effect.
+     */
+    @Query("select new com.example.deals.dto.DealResponse(d.dealId, d.fromCurrency, d.toCurrency, d.dealTimestamp, d.amount)"
+            + " from Deal d order by d.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DealResponse> streamAllResponses();
+}
@@ -0,0 +1,47 @@
+package com.example.deals.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * How far each unfinished import got, keyed by the SHA-256 of the uploaded file. Every statement runs in its own
+ * transaction, after the rows it covers have committed, so a checkpoint never claims a row that is not stored.
+ */
+@Repository
+public class ImportCheckpointRepository {
+
+    private static final String FIND_SQL = "SELECT last_row FROM import_checkpoints WHERE file_hash = ?";
+
+    // Concurrent imports of one file only ever move the checkpoint forward
+    private static final String ADVANCE_SQL = """
+            INSERT INTO import_checkpoints (file_hash, last_row) VALUES (?, ?)
+            ON CONFLICT (file_hash) DO UPDATE
+            SET last_row = GREATEST(import_checkpoints.last_row, EXCLUDED.last_row), updated_at = now()""";
+
+    private static final String DELETE_SQL = "DELETE FROM import_checkpoints WHERE file_hash = ?";
+
+    private final JdbcTemplate jdbc;
+
+    public ImportCheckpointRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * The last row committed by an earlier, unfinished import of the file, if there was one.
+     */
+    public OptionalInt lastCommittedRow(String fileHash) {
+        List<Integer> rows = jdbc.queryForList(FIND_SQL, Integer.class, fileHash);
+        return rows.isEmpty() ? OptionalInt.empty() : OptionalInt.of(rows.get(0));
+    }
+
+    public void advance(String fileHash, int lastRow) {
+        jdbc.update(ADVANCE_SQL, fileHash, lastRow);
+    }
+
+    public void delete(String fileHash) {
+        jdbc.update(DELETE_SQL, fileHash);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.deals.result;
+
+import com.example.deals.validation.ValidationOutcome;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Groups failed checks by message template, keeping a count and a few samples per template. A validation message
+ * is split into its checks, and a check reported as {@code "<template>: <value>"}, such as
+ * {@code "Invalid timestamp format: 2025-13-01"}, is grouped under its template so rows that fail the same way
+ * share a group whatever their values; the value is kept only in the samples. At most {@code maxGroups}
+ * templates are kept; failed checks with any other template are only counted, so memory is bounded however many
+ * rows fail.
+ */
+public final class FailureDigest implements Consumer<RowResult> {
+
+    public record Group(String message, long count, List<Sample> samples) {}
+
+    /**
+     * One failed row of a group; {@code value} is the raw value the check reported, or null when it has none.
+     */
+    public record Sample(String dealId, String value) {}
+
+    private static final String VALUE_SEPARATOR = ": ";
+
+    private final int maxGroups;
+    private final int maxSamples;
+    private final Map<String, MutableGroup> groups = new HashMap<>();
+    private long ungrouped;
+
+    public FailureDigest(int maxGroups, int maxSamples) {
+        this.maxGroups = maxGroups;
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public void accept(RowResult result) {
+        if (!"FAILURE".equals(result.status())) {
+            return;
+        }
+
+        String message = Objects.toString(result.message(), "");
+        if (message.startsWith(RowResult.DATABASE_ERROR)) {
+            // One failure whose driver message may itself contain the separator
+            accept(result.dealId(), message);
+            return;
+        }
+        for (String check : message.split(ValidationOutcome.SEPARATOR)) {
+            accept(result.dealId(), check);
+        }
+    }
+
+    private void accept(String dealId, String check) {
+        int split = check.indexOf(VALUE_SEPARATOR);
+        String template = split < 0 ? check : check.substring(0, split);
+
+        MutableGroup group = groups.get(template);
+        if (group == null) {
+            if (groups.size() == maxGroups) {
+                ungrouped++;
+                return;
+            }
+            group = new MutableGroup();
+            groups.put(template, group);
+        }
+
+        group.count++;
+        if (group.samples.size() < maxSamples) {
+            group.samples.add(new Sample(dealId, split < 0 ? null : check.substring(split + VALUE_SEPARATOR.length())));
+        }
+    }
+
+    /**
+     * The kept templates, most frequent first.
+     */
+    public List<Group> groups() {
+        return groups.entrySet().stream()
+                .map(e -> new Group(e.getKey(), e.getValue().count, List.copyOf(e.getValue().samples)))
+                .sorted(Comparator.comparingLong(Group::count).reversed().thenComparing(Group::message))
+                .toList();
+    }
+
+    /**
+     * Failed checks whose template arrived after {@code maxGroups} distinct templates were already kept.
+     */
+    public long ungrouped() {
+        return ungrouped;
+    }
+
+    private static final class MutableGroup {
+        private long count;
+        private final List<Sample> samples = new ArrayList<>();
+    }
+}
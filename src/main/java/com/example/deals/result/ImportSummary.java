@@ -0,0 +1,32 @@
+package com.example.deals.result;
+
+import java.util.function.Consumer;
+
+/**
+ * Row totals for one import.
+ */
+public record ImportSummary(long total, long successes, long duplicates, long failures) {
+
+    /**
+     * Tallies results as they are produced, so totals never require the result list.
+     */
+    public static final class Counter implements Consumer<RowResult> {
+
+        private long successes;
+        private long duplicates;
+        private long failures;
+
+        @Override
+        public void accept(RowResult result) {
+            switch (result.status()) {
+                case "SUCCESS" -> successes++;
+                case "DUPLICATE" -> duplicates++;
+                default -> failures++;
+            }
+        }
+
+        public ImportSummary summary() {
+            return new ImportSummary(successes + duplicates + failures, successes, duplicates, failures);
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.example.deals.result;
 
 public record RowResult(String dealId, String status, String message) {
 
+    /**
+     * Prefixes the message of a row the database rejected; the rest is the driver's message.
+     */
+    public static final String DATABASE_ERROR = "Database error: ";
+
     public static RowResult success(String dealId) {
         return new RowResult(dealId, "SUCCESS", null);
     }
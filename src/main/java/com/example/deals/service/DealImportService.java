@@ -1,96 +1,543 @@
 package com.example.deals.service;
 
+import com.example.deals.config.ImportProperties;
+import com.example.deals.dedup.DealIdSet;
+import com.example.deals.dto.DealPage;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.dto.DealResponse;
-import com.example.deals.exception.DealValidationException;
 import com.example.deals.model.Deal;
 import com.example.deals.parser.DealParser;
+import com.example.deals.repository.DealCopyRepository;
+import com.example.deals.repository.DealJdbcRepository;
 import com.example.deals.repository.DealRepository;
+import com.example.deals.repository.ImportCheckpointRepository;
 import com.example.deals.result.RowResult;
 import com.example.deals.validation.DealValidator;
+import com.example.deals.validation.ValidationOutcome;
 
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class DealImportService {
 
     private static final Logger log = LoggerFactory.getLogger(DealImportService.class);
 
+    private static final long UNKNOWN_SIZE = -1;
+
+    // The hashed in-file duplicate set starts this small and doubles as ids arrive; sizing it from the upload
+    // size would reserve hundreds of MB for a 1 GB upload before the first row is read
+    private static final long INITIAL_SEEN_IDS = 1024;
+
+    static final String DATABASE_ERROR = RowResult.DATABASE_ERROR;
+
+    private static final int PER_ROW_CHECKPOINT_INTERVAL = 1000;
+
     private final DealRepository repository;
+    private final DealJdbcRepository jdbcRepository;
+    private final DealCopyRepository copyRepository;
     private final DealValidator validator;
+    private final ImportProperties properties;
+    private final DealLookupCache lookupCache;
+    private final KnownDealIds knownIds;
+    private final ImportMetrics metrics;
+    private final ImportCheckpointRepository checkpoints;
+    private final ImportThreads threads;
+    private final ImportScheduler scheduler;
+    private final ImportPipeline pipeline;
 
-    public DealImportService(DealRepository repository, DealValidator validator) {
+    public DealImportService(DealRepository repository, DealJdbcRepository jdbcRepository,
+                             DealCopyRepository copyRepository, DealValidator validator,
+                             ImportProperties properties, DealLookupCache lookupCache, KnownDealIds knownIds,
+                             ImportMetrics metrics, ImportCheckpointRepository checkpoints, ImportThreads threads,
+                             ImportScheduler scheduler) {
         this.repository = repository;
+        this.jdbcRepository = jdbcRepository;
+        this.copyRepository = copyRepository;
         this.validator = validator;
+        this.properties = properties;
+        this.lookupCache = lookupCache;
+        this.knownIds = knownIds;
+        this.metrics = metrics;
+        this.checkpoints = checkpoints;
+        this.threads = threads;
+        this.scheduler = scheduler;
+        this.pipeline = new ImportPipeline(properties.getPipeline(), metrics, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pipeline.shutdown();
+    }
+
+    public List<RowResult> importRows(Iterable<DealParser.RowData> rows) {
+        return importRows(rows, UNKNOWN_SIZE);
     }
 
-    public List<RowResult> importRows(List<DealParser.RowData> rows) {
-        Set<String> seenIds = new HashSet<>();
+    public List<RowResult> importRows(Iterable<DealParser.RowData> rows, long uploadSizeBytes) {
+        return importRows(rows, uploadSizeBytes, false);
+    }
+
+    public void importRows(Iterable<DealParser.RowData> rows, Consumer<RowResult> sink) {
+        importRows(rows, UNKNOWN_SIZE, sink);
+    }
+
+    public void importRows(Iterable<DealParser.RowData> rows, long uploadSizeBytes, Consumer<RowResult> sink) {
+        importRows(rows, uploadSizeBytes, false, sink);
+    }
+
+    public List<RowResult> importRows(Iterable<DealParser.RowData> rows, long uploadSizeBytes, boolean trace) {
         List<RowResult> results = new ArrayList<>();
+        importRows(rows, uploadSizeBytes, trace, results::add);
+        return results;
+    }
 
-        for (DealParser.RowData row : rows) {
-            results.add(importOneRow(row, seenIds));
+    public void importRows(Iterable<DealParser.RowData> rows, long uploadSizeBytes, boolean trace,
+                           Consumer<RowResult> sink) {
+        importRows(rows, uploadSizeBytes, trace, null, sink);
+    }
+
+    /**
+     * Imports rows as they are pulled from {@code rows}, handing each result to {@code sink}
+     * immediately so callers that stream the upload never hold the whole file in memory.
+     * Uploads above the configured COPY threshold are bulk loaded; smaller ones use the
+     * batched or per-row path, each chunk in its own transaction. Row events are sampled per
+     * outcome and the import ends with one summary event; {@code trace} logs every row with its
+     * parsed fields instead.
+     * <p>
+     * With a {@code fileHash}, progress is checkpointed after each committed chunk, and rows that an
+     * unfinished earlier import of the same file committed are skipped: they are parsed, so in-file
+     * duplicates are still caught, but not validated, checked or reported.
+     * <p>
+     * Only as many imports as {@link ImportThreads} allows run at once; the rest wait here for their turn.
+     *
+     * @return the row the import resumed after, or 0 when it started from the first row
+     */
+    public int importRows(Iterable<DealParser.RowData> rows, long uploadSizeBytes, boolean trace, String fileHash,
+                          Consumer<RowResult> sink) {
+        return threads.limited(() -> importLimited(rows, uploadSizeBytes, trace, fileHash, sink));
+    }
+
+    private int importLimited(Iterable<DealParser.RowData> rows, long uploadSizeBytes, boolean trace, String fileHash,
+                              Consumer<RowResult> sink) {
+        long started = System.nanoTime();
+        boolean copy = properties.useCopy(uploadSizeBytes);
+        int chunkSize = copy ? properties.getCopyChunkSize() : properties.getBatchSize();
+        ImportLog importLog = new ImportLog(properties.getLogging(), trace);
+        ImportCheckpoint checkpoint = new ImportCheckpoint(checkpoints, fileHash);
+        Throwable error = null;
+        try (ImportScheduler.RowBudget budget = scheduler.rowBudget()) {
+            checkpoint.load();
+            importFrom(rows.iterator(), uploadSizeBytes, copy, chunkSize, checkpoint, budget, (row, result) -> {
+                metrics.row(result);
+                importLog.row(row, result);
+                sink.accept(result);
+            });
+            checkpoint.completed();
+            return checkpoint.resumeAfter();
+        } catch (RuntimeException | Error ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            metrics.imported(uploadSizeBytes, elapsed);
+            importLog.finished(mode(copy, chunkSize), uploadSizeBytes, checkpoint.resumeAfter(), elapsed, error);
         }
+    }
 
-        return results;
+    private String mode(boolean copy, int chunkSize) {
+        if (copy) {
+            return properties.getPipeline().isEnabled() ? "copy-pipelined" : "copy";
+        }
+        if (chunkSize <= 1) {
+            return "per-row";
+        }
+        String mode = properties.getBatchWriter() == ImportProperties.BatchWriter.JPA ? "jpa-batch" : "jdbc-batch";
+        return properties.getPipeline().isEnabled() ? mode + "-pipelined" : mode;
     }
 
-    public RowResult importOneRow(DealParser.RowData row, Set<String> seenIds) {
+    /**
+     * Rows are parsed lazily as they are pulled, so the time spent pulling them is the parse stage. Each chunk
+     * takes row credit from {@code budget} before it is filled and gives it back once its results are out.
+     */
+    private void importFrom(Iterator<DealParser.RowData> rows, long uploadSizeBytes, boolean copy, int chunkSize,
+                            ImportCheckpoint checkpoint, ImportScheduler.RowBudget budget,
+                            BiConsumer<DealParser.RowData, RowResult> sink) {
+        DealIdSet seenIds = newSeenIds();
+        BiConsumer<DealParser.RowData, RowResult> tracked = checkpoint.tracking(sink);
 
-        DealRequest req = row.request();
-        int rowNum = row.rowNum();
+        if (chunkSize <= 1) {
+            long parseStarted = System.nanoTime();
+            int sinceCheckpoint = 0;
+            while (rows.hasNext()) {
+                DealParser.RowData row = rows.next();
+                metrics.record(ImportMetrics.Stage.PARSE, System.nanoTime() - parseStarted);
+                if (!checkpoint.skip(row, seenIds)) {
+                    tracked.accept(row, importOneRow(row, seenIds));
+                    // Each row commits on its own; saving the checkpoint per row would double the statements
+                    if (++sinceCheckpoint == PER_ROW_CHECKPOINT_INTERVAL) {
+                        checkpoint.save();
+                        sinceCheckpoint = 0;
+                    }
+                }
+                parseStarted = System.nanoTime();
+            }
+            checkpoint.save();
+            return;
+        }
 
-        MDC.put("dealId", req.getDealId());
-        MDC.put("rowNum", String.valueOf(rowNum));
+        if (properties.getPipeline().isEnabled()) {
+            importPipelined(rows, seenIds, copy, chunkSize, checkpoint, budget, tracked);
+            return;
+        }
 
-        String dealId = req.getDealId();
+        List<DealParser.RowData> chunk = new ArrayList<>(chunkSize);
+        long credit = 0;
+        long parseStarted = System.nanoTime();
+        while (rows.hasNext()) {
+            DealParser.RowData row = rows.next();
+            if (checkpoint.skip(row, seenIds)) {
+                continue;
+            }
+            if (chunk.isEmpty()) {
+                // Waiting for credit is not parsing
+                long parsed = System.nanoTime() - parseStarted;
+                credit = budget.takeOrCancel(chunkSize);
+                parseStarted = System.nanoTime() - parsed;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                metrics.record(ImportMetrics.Stage.PARSE, System.nanoTime() - parseStarted);
+                importChunk(chunk, seenIds, copy, tracked);
+                checkpoint.save();
+                chunk.clear();
+                budget.give(credit);
+                parseStarted = System.nanoTime();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            metrics.record(ImportMetrics.Stage.PARSE, System.nanoTime() - parseStarted);
+            importChunk(chunk, seenIds, copy, tracked);
+            checkpoint.save();
+        }
+    }
 
-        try {
-            if (seenIds.contains(dealId)) {
-                log.warn("Duplicate in file");
-                return RowResult.duplicate(dealId, "Duplicate dealId in file");
+    /**
+     * Same results as the sequential chunk loop, with parsing, validation and writes overlapping. Rows before the
+     * checkpoint are still chunked by the parser but skip validation, and are dropped here in file order.
+     */
+    private void importPipelined(Iterator<DealParser.RowData> rows, DealIdSet seenIds, boolean copy, int chunkSize,
+                                 ImportCheckpoint checkpoint, ImportScheduler.RowBudget budget,
+                                 BiConsumer<DealParser.RowData, RowResult> sink) {
+        int resumeAfter = checkpoint.resumeAfter();
+        pipeline.run(rows, chunkSize, budget,
+                row -> row.rowNum() <= resumeAfter || row.validation() != null
+                        ? row : row.withValidation(validator.check(row.request())),
+                chunk -> {
+                    List<DealParser.RowData> fresh = new ArrayList<>(chunk.size());
+                    for (DealParser.RowData row : chunk) {
+                        if (!checkpoint.skip(row, seenIds)) {
+                            fresh.add(row);
+                        }
+                    }
+                    return new PipelinedChunk(fresh, prepareChunk(fresh, seenIds));
+                },
+                chunk -> persistChunk(chunk.prepared(), copy),
+                (chunk, results) -> {
+                    for (int i = 0; i < results.size(); i++) {
+                        sink.accept(chunk.rows().get(i), results.get(i));
+                    }
+                    checkpoint.save();
+                });
+    }
+
+    private record PipelinedChunk(List<DealParser.RowData> rows, PreparedChunk prepared) {}
+
+    private void importChunk(List<DealParser.RowData> chunk, DealIdSet seenIds, boolean copy,
+                             BiConsumer<DealParser.RowData, RowResult> sink) {
+        List<RowResult> results = importChunk(chunk, seenIds, copy);
+        for (int i = 0; i < results.size(); i++) {
+            sink.accept(chunk.get(i), results.get(i));
+        }
+    }
+
+    private DealIdSet newSeenIds() {
+        if (properties.getSeenIds() == ImportProperties.SeenIds.HASHED) {
+            return DealIdSet.hashed(INITIAL_SEEN_IDS);
+        }
+        return DealIdSet.exact();
+    }
+
+    public List<RowResult> importChunk(List<DealParser.RowData> chunk, DealIdSet seenIds) {
+        return importChunk(chunk, seenIds, false);
+    }
+
+    /**
+     * Chunked equivalent of {@link #importOneRow}: duplicate and validation checks stay per row, then the
+     * surviving rows are persisted together, either with multi-row {@code INSERT ... ON CONFLICT DO NOTHING}
+     * statements or with a COPY into staging merged the same way. Results are returned in chunk
+     * order with the same statuses and messages the per-row path produces.
+     */
+    public List<RowResult> importChunk(List<DealParser.RowData> chunk, DealIdSet seenIds, boolean copy) {
+        return persistChunk(metrics.time(ImportMetrics.Stage.VALIDATE, () -> prepareChunk(chunk, seenIds)), copy);
+    }
+
+    /**
+     * A chunk after the per-row checks: rows that failed them already have a result, the rest are pending.
+     */
+    private record PreparedChunk(RowResult[] results, Deal[] deals, Map<String, Integer> pending) {}
+
+    /**
+     * Runs the in-file duplicate and validation checks. Must see the chunks of an import one at a time and in
+     * file order, since {@code seenIds} decides which occurrence of an id is the duplicate.
+     */
+    private PreparedChunk prepareChunk(List<DealParser.RowData> chunk, DealIdSet seenIds) {
+        RowResult[] results = new RowResult[chunk.size()];
+        Deal[] deals = new Deal[chunk.size()];
+        Map<String, Integer> pending = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            DealRequest req = chunk.get(i).request();
+            String dealId = req.getDealId();
+
+            if (!seenIds.add(dealId)) {
+                results[i] = RowResult.duplicate(dealId, "Duplicate dealId in file");
+                continue;
             }
 
-            seenIds.add(dealId);
+            ValidationOutcome outcome = validate(chunk.get(i));
+            if (outcome.isValid()) {
+                deals[i] = new Deal(outcome.deal());
+                pending.put(dealId, i);
+            } else {
+                results[i] = RowResult.failure(dealId, outcome.error());
+            }
+        }
 
-            validator.validate(req);
+        return new PreparedChunk(results, deals, pending);
+    }
 
-            if (repository.findByDealId(dealId).isPresent()) {
-                log.warn("Duplicate in DB");
-                return RowResult.duplicate(dealId, "Deal already exists in DB");
+    /**
+     * Persists the pending rows of a prepared chunk. Chunks of one import hold distinct ids once prepared, so
+     * several can be persisted at once.
+     */
+    private List<RowResult> persistChunk(PreparedChunk chunk, boolean copy) {
+        RowResult[] results = chunk.results();
+        Map<String, Integer> pending = chunk.pending();
+        if (!pending.isEmpty() && !(copy && copyPending(chunk.deals(), pending, results))) {
+            persistPending(chunk.deals(), pending, results);
+        }
+
+        for (RowResult result : results) {
+            if (result.status().equals("SUCCESS")) {
+                inserted(result.dealId());
             }
+        }
 
-            repository.save(new Deal(req));
+        return Arrays.asList(results);
+    }
 
-            log.info("Imported successfully");
-            return RowResult.success(dealId);
+    /**
+     * Uses the outcome computed while parsing when there is one, otherwise validates now.
+     */
+    private ValidationOutcome validate(DealParser.RowData row) {
+        ValidationOutcome outcome = row.validation();
+        return outcome != null ? outcome : validator.check(row.request());
+    }
+
+    private boolean copyPending(Deal[] deals, Map<String, Integer> pending, RowResult[] results) {
+        Set<String> inserted;
+        try {
+            inserted = metrics.time(ImportMetrics.Stage.INSERT,
+                    () -> copyRepository.copyAndMerge(pending.values().stream().map(i -> deals[i]).toList()));
+        } catch (Exception ex) {
+            // The COPY transaction is all-or-nothing; let the batched path isolate the offending rows
+            log.warn("COPY ingest of {} rows failed, falling back to JDBC batch: {}", pending.size(), ex.getMessage());
+            return false;
+        }
+
+        resolvePending(pending, inserted, results);
+        return true;
+    }
+
+    private void persistPending(Deal[] deals, Map<String, Integer> pending, RowResult[] results) {
+        if (properties.getBatchWriter() == ImportProperties.BatchWriter.JPA) {
+            persistPendingJpa(deals, pending, results);
+            return;
+        }
+
+        Set<String> inserted;
+        try {
+            inserted = metrics.time(ImportMetrics.Stage.INSERT,
+                    () -> jdbcRepository.insertAllIfAbsent(pending.values().stream().map(i -> deals[i]).toList()));
+        } catch (Exception batchEx) {
+            // The chunk is rolled back as a whole; retry row by row so only the offending rows fail
+            pending.forEach((dealId, i) -> results[i] = insertIfAbsent(deals[i]));
+            return;
+        }
+
+        resolvePending(pending, inserted, results);
+    }
+
+    private static void resolvePending(Map<String, Integer> pending, Set<String> inserted, RowResult[] results) {
+        pending.forEach((dealId, i) -> results[i] = inserted.contains(dealId)
+                ? RowResult.success(dealId)
+                : RowResult.duplicate(dealId, "Deal already exists in DB"));
+    }
+
+    private RowResult insertIfAbsent(Deal deal) {
+        try {
+            return metrics.time(ImportMetrics.Stage.INSERT, () -> jdbcRepository.insertIfAbsent(deal))
+                    ? RowResult.success(deal.getDealId())
+                    : RowResult.duplicate(deal.getDealId(), "Deal already exists in DB");
+        } catch (Exception ex) {
+            return RowResult.failure(deal.getDealId(), DATABASE_ERROR + ex.getMessage());
+        }
+    }
 
-        } catch (DealValidationException ex) {
-            log.error("Validation failure: {}", ex.getMessage());
-            return RowResult.failure(dealId, ex.getMessage());
+    /**
+     * JPA cannot express {@code ON CONFLICT}, so this writer keeps an existence query before {@code saveAll}.
+     */
+    private void persistPendingJpa(Deal[] deals, Map<String, Integer> pending, RowResult[] results) {
+        // Ids the filter rules out need no lookup; with mostly new deals the query usually disappears entirely
+        List<String> maybeExisting = pending.keySet().stream().filter(knownIds::mightExist).toList();
 
+        Set<String> existing;
+        try {
+            existing = metrics.time(ImportMetrics.Stage.DB_CHECK,
+                    () -> jdbcRepository.findExistingDealIds(maybeExisting));
         } catch (Exception ex) {
-            log.error("Persistence error: {}", ex.getMessage());
-            return RowResult.failure(dealId, "Database error: " + ex.getMessage());
+            pending.forEach((dealId, i) -> results[i] = RowResult.failure(dealId, DATABASE_ERROR + ex.getMessage()));
+            return;
+        }
 
-        } finally {
-            MDC.clear();
+        List<Integer> toInsert = new ArrayList<>();
+        pending.forEach((dealId, i) -> {
+            if (existing.contains(dealId)) {
+                results[i] = RowResult.duplicate(dealId, "Deal already exists in DB");
+            } else {
+                toInsert.add(i);
+            }
+        });
+
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction; Hibernate flushes the sequence-keyed inserts as ordered JDBC batches
+            metrics.time(ImportMetrics.Stage.INSERT,
+                    () -> repository.saveAll(toInsert.stream().map(i -> deals[i]).toList()));
+            toInsert.forEach(i -> results[i] = RowResult.success(deals[i].getDealId()));
+        } catch (Exception batchEx) {
+            // The batch is rolled back as a whole; retry row by row so only the offending rows fail
+            for (int i : toInsert) {
+                Deal deal = deals[i];
+                try {
+                    // A rolled-back saveAll may already have assigned an id; clear it so the retry is a fresh persist
+                    deal.setId(null);
+                    metrics.time(ImportMetrics.Stage.INSERT, () -> repository.save(deal));
+                    results[i] = RowResult.success(deal.getDealId());
+                } catch (Exception ex) {
+                    results[i] = insertFailure(deal.getDealId(), ex);
+                }
+            }
         }
     }
 
-    public List<DealResponse> getAllDealsDto() {
-        return repository.findAll().stream()
-                .map(DealResponse::fromEntity)
-                .toList();
+    private void inserted(String dealId) {
+        knownIds.add(dealId);
+        lookupCache.invalidate(dealId);
+    }
+
+    /**
+     * An insert can lose a race with another writer, or follow a stale "absent" answer from {@link KnownDealIds};
+     * a unique violation for a deal that does exist now is reported as the duplicate it is.
+     */
+    private RowResult insertFailure(String dealId, Exception ex) {
+        if (ex instanceof DataIntegrityViolationException && existsQuietly(dealId)) {
+            return RowResult.duplicate(dealId, "Deal already exists in DB");
+        }
+        return RowResult.failure(dealId, DATABASE_ERROR + ex.getMessage());
+    }
+
+    private boolean existsQuietly(String dealId) {
+        try {
+            return repository.findByDealId(dealId).isPresent();
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    public RowResult importOneRow(DealParser.RowData row, DealIdSet seenIds) {
+        String dealId = row.request().getDealId();
+
+        try {
+            if (!seenIds.add(dealId)) {
+                return RowResult.duplicate(dealId, "Duplicate dealId in file");
+            }
+
+            long validateStarted = System.nanoTime();
+            ValidationOutcome outcome = validate(row);
+            metrics.record(ImportMetrics.Stage.VALIDATE, System.nanoTime() - validateStarted);
+            if (!outcome.isValid()) {
+                return RowResult.failure(dealId, outcome.error());
+            }
+
+            // The unique index decides in the same statement, so concurrent imports of one id cannot both succeed
+            Deal deal = new Deal(outcome.deal());
+            if (!metrics.time(ImportMetrics.Stage.INSERT, () -> jdbcRepository.insertIfAbsent(deal))) {
+                return RowResult.duplicate(dealId, "Deal already exists in DB");
+            }
+            inserted(dealId);
+
+            return RowResult.success(dealId);
+
+        } catch (Exception ex) {
+            return RowResult.failure(dealId, DATABASE_ERROR + ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} deals with an id greater than {@code afterId}, in id order.
+     */
+    public DealPage getDealsPage(long afterId, int limit) {
+        // One extra row tells whether another page follows without a count query
+        List<Deal> deals = repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        boolean more = deals.size() > limit;
+        List<Deal> page = more ? deals.subList(0, limit) : deals;
+
+        return new DealPage(
+                page.stream().map(DealResponse::fromEntity).toList(),
+                more ? String.valueOf(page.get(limit - 1).getId()) : null);
+    }
+
+    /**
+     * Hands every deal to {@code sink} in id order while reading from a database cursor, so memory use does not
+     * depend on the table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportDeals(Consumer<DealResponse> sink) {
+        try (Stream<DealResponse> deals = repository.streamAllResponses()) {
+            deals.forEach(sink);
+        }
     }
 
+    /**
+     * Served from {@link DealLookupCache}; imports invalidate the ids they insert, so a cached miss never hides a
+     * deal imported through this instance.
+     */
     public Optional<DealResponse> getDealByIdDto(String dealId) {
-        return repository.findByDealId(dealId)
-                .map(DealResponse::fromEntity);
+        return lookupCache.get(dealId, id -> repository.findByDealId(id).map(DealResponse::fromEntity));
     }
 }
\ No newline at end of file
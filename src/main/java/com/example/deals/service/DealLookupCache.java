@@ -0,0 +1,80 @@
+package com.example.deals.service;
+
+import com.example.deals.config.DealCacheProperties;
+import com.example.deals.dto.DealResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link DealResponse} by dealId. Unknown ids are cached too, with their own shorter
+ * lifetime, so repeated lookups of missing deals stop reaching the database. Concurrent misses for the same id
+ * share one load.
+ */
+@Component
+public class DealLookupCache {
+
+    static final String NAME = "deals.by-id";
+
+    private final Cache<String, Optional<DealResponse>> cache;
+    private final boolean enabled;
+
+    public DealLookupCache(DealCacheProperties properties) {
+        this.enabled = properties.getMaxSize() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new FoundOrMissingExpiry(properties))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Registers hit, miss, eviction and size meters under {@code cache.*} with {@code cache=deals.by-id}.
+     */
+    @Autowired
+    public DealLookupCache(DealCacheProperties properties, MeterRegistry registry) {
+        this(properties);
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    public Optional<DealResponse> get(String dealId, Function<String, Optional<DealResponse>> loader) {
+        return enabled ? cache.get(dealId, loader) : loader.apply(dealId);
+    }
+
+    /**
+     * Drops whatever is cached for {@code dealId}, typically a cached miss for a deal that was just imported.
+     */
+    public void invalidate(String dealId) {
+        cache.invalidate(dealId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private record FoundOrMissingExpiry(DealCacheProperties properties) implements Expiry<String, Optional<DealResponse>> {
+
+        @Override
+        public long expireAfterCreate(String dealId, Optional<DealResponse> deal, long currentTime) {
+            return (deal.isPresent() ? properties.getTtl() : properties.getNegativeTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String dealId, Optional<DealResponse> deal, long currentTime, long currentDuration) {
+            return expireAfterCreate(dealId, deal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String dealId, Optional<DealResponse> deal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.deals.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed amount of something, such as bytes or rows, handed out to owners in turn.
+ * <p>
+ * Owners with waiting requests form a ring. Whenever capacity frees up, the first owner in the ring has its
+ * oldest request granted if it fits and moves to the back, so an owner with many requests gets one turn per
+ * round like everyone else. A request that does not fit holds up the ring until enough is released, which
+ * delays a large request but never starves it. An owner already holding {@code ownerLimit} is passed over
+ * until it releases, and requests are clamped to {@code ownerLimit} so an oversized one runs rather than never
+ * fitting.
+ * <p>
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so waiting virtual threads unmount.
+ */
+final class FairShare {
+
+    private final long capacity;
+    private final long ownerLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Insertion order is the ring: the first owner has the next turn
+    private final LinkedHashMap<Object, Deque<Waiter>> waiting = new LinkedHashMap<>();
+    private final Map<Object, Long> held = new HashMap<>();
+    private long available;
+
+    FairShare(long capacity, long ownerLimit) {
+        if (capacity < 1 || ownerLimit < 1) {
+            throw new IllegalArgumentException("Capacity and owner limit must be positive");
+        }
+        this.capacity = capacity;
+        this.ownerLimit = Math.min(ownerLimit, capacity);
+        this.available = capacity;
+    }
+
+    long ownerLimit() {
+        return ownerLimit;
+    }
+
+    /**
+     * The amount {@link #acquire} grants for {@code amount}, and so the amount to release afterwards.
+     */
+    long clamp(long amount) {
+        return Math.max(0, Math.min(amount, ownerLimit));
+    }
+
+    /**
+     * Waits up to {@code timeout} for {@link #clamp clamp(amount)} to be granted to {@code owner}.
+     *
+     * @return the amount granted, or -1 if the wait timed out
+     */
+    long acquire(Object owner, long amount, long timeout, TimeUnit unit) throws InterruptedException {
+        long wanted = clamp(amount);
+        lock.lock();
+        try {
+            if (waiting.isEmpty() && fits(owner, wanted)) {
+                take(owner, wanted);
+                return wanted;
+            }
+
+            Waiter waiter = new Waiter(wanted, lock.newCondition());
+            waiting.computeIfAbsent(owner, o -> new ArrayDeque<>()).add(waiter);
+            grant();
+
+            long remaining = unit.toNanos(timeout);
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        abandon(owner, waiter);
+                        return -1;
+                    }
+                    remaining = waiter.ready.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    release(owner, wanted);
+                } else {
+                    abandon(owner, waiter);
+                }
+                throw e;
+            }
+            return wanted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(Object owner, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            available += amount;
+            held.computeIfPresent(owner, (o, total) -> total == amount ? null : total - amount);
+            grant();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long inUse() {
+        lock.lock();
+        try {
+            return capacity - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(Object owner, long amount) {
+        return amount <= available && held.getOrDefault(owner, 0L) + amount <= ownerLimit;
+    }
+
+    private void take(Object owner, long amount) {
+        available -= amount;
+        held.merge(owner, amount, Long::sum);
+    }
+
+    private void grant() {
+        boolean granted = true;
+        while (granted) {
+            granted = false;
+            for (Object owner : new ArrayList<>(waiting.keySet())) {
+                Deque<Waiter> queue = waiting.get(owner);
+                Waiter next = queue.peek();
+                if (held.getOrDefault(owner, 0L) + next.amount > ownerLimit) {
+                    continue;
+                }
+                if (next.amount > available) {
+                    return;
+                }
+                take(owner, next.amount);
+                next.granted = true;
+                next.ready.signal();
+                queue.poll();
+                // Move the owner to the back of the ring, or out of it once it has nothing left waiting
+                waiting.remove(owner);
+                if (!queue.isEmpty()) {
+                    waiting.put(owner, queue);
+                }
+                granted = true;
+                break;
+            }
+        }
+    }
+
+    private void abandon(Object owner, Waiter waiter) {
+        Deque<Waiter> queue = waiting.get(owner);
+        queue.remove(waiter);
+        if (queue.isEmpty()) {
+            waiting.remove(owner);
+        }
+        // The abandoned request may have been the one holding up the ring
+        grant();
+    }
+
+    private static final class Waiter {
+
+        private final long amount;
+        private final Condition ready;
+        private boolean granted;
+
+        Waiter(long amount, Condition ready) {
+            this.amount = amount;
+            this.ready = ready;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.deals.service;
+
+import com.example.deals.dedup.DealIdSet;
+import com.example.deals.parser.DealParser;
+import com.example.deals.repository.ImportCheckpointRepository;
+import com.example.deals.result.RowResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.BiConsumer;
+
+/**
+ * The last row of one import known to be committed. A row that failed on a database error might succeed when
+ * retried, so the checkpoint never moves past the first such row and a resumed import checks it again. Saving
+ * happens after the rows are committed, so a crash in between only means a few rows are checked twice and come
+ * back as duplicates. Without a file hash every method is a no-op.
+ */
+final class ImportCheckpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportCheckpoint.class);
+
+    private final ImportCheckpointRepository checkpoints;
+    private final String fileHash;
+    private int resumeAfter;
+    private int committed;
+    private int saved;
+    private boolean held;
+
+    ImportCheckpoint(ImportCheckpointRepository checkpoints, String fileHash) {
+        this.checkpoints = checkpoints;
+        this.fileHash = fileHash;
+    }
+
+    void load() {
+        if (fileHash != null) {
+            resumeAfter = checkpoints.lastCommittedRow(fileHash).orElse(0);
+            committed = resumeAfter;
+            saved = resumeAfter;
+        }
+    }
+
+    int resumeAfter() {
+        return resumeAfter;
+    }
+
+    /**
+     * True for rows an earlier import already committed; their ids still count as seen in this file.
+     */
+    boolean skip(DealParser.RowData row, DealIdSet seenIds) {
+        if (row.rowNum() > resumeAfter) {
+            return false;
+        }
+        seenIds.add(row.request().getDealId());
+        return true;
+    }
+
+    /**
+     * Wraps {@code sink} to follow the committed rows; results must arrive in row order.
+     */
+    BiConsumer<DealParser.RowData, RowResult> tracking(BiConsumer<DealParser.RowData, RowResult> sink) {
+        if (fileHash == null) {
+            return sink;
+        }
+        return (row, result) -> {
+            if (!held) {
+                if (isPersistenceFailure(result)) {
+                    held = true;
+                } else {
+                    committed = row.rowNum();
+                }
+            }
+            sink.accept(row, result);
+        };
+    }
+
+    void save() {
+        if (fileHash == null || committed == saved) {
+            return;
+        }
+        try {
+            checkpoints.advance(fileHash, committed);
+            saved = committed;
+        } catch (Exception ex) {
+            // Only resumption is lost; the rows themselves are committed
+            log.warn("Could not save import checkpoint at row {}: {}", committed, ex.getMessage());
+        }
+    }
+
+    void completed() {
+        if (fileHash == null) {
+            return;
+        }
+        if (held) {
+            save();
+            return;
+        }
+        try {
+            checkpoints.delete(fileHash);
+        } catch (Exception ex) {
+            log.warn("Could not remove import checkpoint: {}", ex.getMessage());
+        }
+    }
+
+    private static boolean isPersistenceFailure(RowResult result) {
+        return result.status().equals("FAILURE") && result.message().startsWith(DealImportService.DATABASE_ERROR);
+    }
+}
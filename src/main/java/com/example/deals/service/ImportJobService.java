@@ -0,0 +1,190 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.job.ImportJob;
+import com.example.deals.parser.DealParser;
+import com.example.deals.validation.DealValidator;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs imports in the background on a bounded pool, of virtual threads when {@link ImportThreads} uses them.
+ * Uploads are spooled to a temp file so the HTTP request can complete immediately; progress is kept in memory
+ * and results in a temp file per job for polling.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final DealParser parser;
+    private final DealImportService importService;
+    private final DealValidator validator;
+    private final ImportProperties.Jobs properties;
+    private final ImportProperties.Parallel parallel;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(DealParser parser, DealImportService importService, DealValidator validator,
+                            ImportProperties properties, ImportThreads threads) {
+        this.parser = parser;
+        this.importService = importService;
+        this.validator = validator;
+        this.properties = properties.getJobs();
+        this.parallel = properties.getParallel();
+
+        // Idle virtual workers cost next to nothing, so let them reach the import limit and wait there
+        int workers = threads.isVirtual()
+                ? Math.max(this.properties.getThreads(), threads.getMaxConcurrent())
+                : this.properties.getThreads();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.properties.getQueueCapacity()),
+                threads.factory("import-job-"));
+    }
+
+    public ImportJob submit(MultipartFile file) throws IOException {
+        return submit(file, false);
+    }
+
+    /**
+     * Stores the upload and queues it for import. With {@code trace} the job logs every row instead of a sample.
+     * An upload whose earlier import did not finish resumes after the last row that import committed.
+     *
+     * @throws RejectedExecutionException when every worker is busy and the queue is full
+     */
+    public ImportJob submit(MultipartFile file, boolean trace) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path upload = Files.createTempFile("deals-import-" + jobId, ".csv");
+        String fileHash;
+        try {
+            fileHash = spool(file, upload);
+        } catch (IOException ex) {
+            deleteQuietly(upload);
+            throw ex;
+        }
+        ImportJob job = new ImportJob(jobId, file.getOriginalFilename(), file.getSize(), fileHash, trace);
+
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> run(job, upload));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            deleteQuietly(upload);
+            throw ex;
+        }
+
+        log.info("Queued import job {} for {} ({} bytes)", job.getId(), job.getFilename(), job.getSizeBytes());
+        return job;
+    }
+
+    public Optional<ImportJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    void run(ImportJob job, Path upload) {
+        job.markRunning();
+        // Tags every event of the import, including its summary, with the job it belongs to
+        MDC.put("jobId", job.getId());
+
+        try (Stream<DealParser.RowData> rows = rows(job, upload).peek(row -> job.rowParsed())) {
+
+            job.resumedAfter(importService.importRows(rows::iterator, job.getSizeBytes(), job.isTraced(),
+                    job.getFileHash(), job::record));
+            job.markCompleted();
+            log.info("Import job {} completed: {} rows", job.getId(), job.getRowsProcessed());
+
+        } catch (Exception ex) {
+            job.markFailed(ex.getMessage());
+            log.error("Import job {} failed: {}", job.getId(), ex.getMessage());
+
+        } finally {
+            MDC.remove("jobId");
+            deleteQuietly(upload);
+        }
+    }
+
+    /**
+     * Copies the upload to {@code target} and returns its SHA-256, computed on the way so the file is read once.
+     */
+    private static String spool(MultipartFile file, Path target) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /**
+     * Large uploads are parsed and validated on the parser's pool; persistence still consumes rows in file order.
+     */
+    private Stream<DealParser.RowData> rows(ImportJob job, Path upload) throws IOException {
+        if (parallel.appliesTo(job.getSizeBytes())) {
+            return parser.streamParallel(upload, row -> row.withValidation(validator.check(row.request())));
+        }
+        return parser.stream(Files.newInputStream(upload));
+    }
+
+    private void evictFinishedJobs() {
+        long finished = jobs.values().stream().filter(ImportJob::isFinished).count();
+        long excess = finished - properties.getMaxRetained() + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .sorted(Comparator.comparing(ImportJob::getFinishedAt))
+                .limit(excess)
+                .forEach(job -> {
+                    jobs.remove(job.getId());
+                    job.discard();
+                });
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(ImportJob::discard);
+    }
+}
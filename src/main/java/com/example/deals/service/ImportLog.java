@@ -0,0 +1,132 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.dto.DealRequest;
+import com.example.deals.parser.DealParser;
+import com.example.deals.result.FailureDigest;
+import com.example.deals.result.RowResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Logging for one import. Row events are sampled per outcome as configured under {@code deals.import.logging},
+ * and every import ends with one summary event carrying the totals, the number of row events left out and the
+ * most frequent failure messages. A traced import instead logs every row with its parsed fields at DEBUG on
+ * {@value #TRACE_LOGGER}.
+ * <p>
+ * Row details are passed as structured arguments rather than MDC entries, so a row that is not logged costs a
+ * counter increment and a comparison. Not thread-safe; an import reports its rows from one thread.
+ */
+final class ImportLog {
+
+    static final String TRACE_LOGGER = "com.example.deals.import.trace";
+
+    private static final Logger log = LoggerFactory.getLogger(DealImportService.class);
+    private static final Logger trace = LoggerFactory.getLogger(TRACE_LOGGER);
+
+    private static final int SUMMARY_FAILURE_SAMPLES = 3;
+
+    private final ImportProperties.Logging properties;
+    private final boolean traced;
+    private final FailureDigest failures;
+
+    private long successes;
+    private long duplicates;
+    private long failed;
+    private long suppressed;
+
+    ImportLog(ImportProperties.Logging properties, boolean traced) {
+        this.properties = properties;
+        this.traced = traced;
+        this.failures = new FailureDigest(properties.getSummaryFailureGroups(), SUMMARY_FAILURE_SAMPLES);
+    }
+
+    void row(DealParser.RowData row, RowResult result) {
+        if (traced) {
+            count(result);
+            trace(row, result);
+            return;
+        }
+
+        switch (result.status()) {
+            case "SUCCESS" -> {
+                if (properties.getSuccess().logs(++successes)) {
+                    log.info("Imported successfully", kv("dealId", result.dealId()), kv("rowNum", row.rowNum()));
+                } else {
+                    suppressed++;
+                }
+            }
+            case "DUPLICATE" -> {
+                if (properties.getDuplicate().logs(++duplicates)) {
+                    log.warn(result.message(), kv("dealId", result.dealId()), kv("rowNum", row.rowNum()));
+                } else {
+                    suppressed++;
+                }
+            }
+            default -> {
+                failures.accept(result);
+                if (properties.getFailure().logs(++failed)) {
+                    log.error("Import failure: {}", result.message(),
+                            kv("dealId", result.dealId()), kv("rowNum", row.rowNum()));
+                } else {
+                    suppressed++;
+                }
+            }
+        }
+    }
+
+    private void count(RowResult result) {
+        switch (result.status()) {
+            case "SUCCESS" -> successes++;
+            case "DUPLICATE" -> duplicates++;
+            default -> {
+                failed++;
+                failures.accept(result);
+            }
+        }
+    }
+
+    private void trace(DealParser.RowData row, RowResult result) {
+        DealRequest req = row.request();
+        trace.debug("Row {}: {}", row.rowNum(), result.status(),
+                kv("dealId", result.dealId()), kv("rowNum", row.rowNum()), kv("outcome", result.status()),
+                kv("message", result.message()), kv("fromCurrency", req.getFromCurrency()),
+                kv("toCurrency", req.getToCurrency()), kv("timestamp", req.getTimestamp()),
+                kv("amount", req.getAmountStr()));
+    }
+
+    /**
+     * Logs the summary event; {@code error} is the exception that ended the import early, or null.
+     */
+    void finished(String mode, long uploadSizeBytes, int resumedAfterRow, long nanos, Throwable error) {
+        Object[] fields = {
+                kv("mode", mode),
+                kv("resumedAfterRow", resumedAfterRow),
+                kv("rows", successes + duplicates + failed),
+                kv("successes", successes),
+                kv("duplicates", duplicates),
+                kv("failures", failed),
+                kv("suppressedRowEvents", suppressed),
+                kv("uploadBytes", uploadSizeBytes),
+                kv("durationMs", TimeUnit.NANOSECONDS.toMillis(nanos)),
+                kv("traced", traced),
+                kv("failureGroups", failures.groups())
+        };
+        if (error == null) {
+            log.info("Import finished", fields);
+        } else {
+            log.error("Import aborted", append(fields, kv("error", String.valueOf(error.getMessage()))));
+        }
+    }
+
+    private static Object[] append(Object[] fields, Object field) {
+        Object[] all = Arrays.copyOf(fields, fields.length + 1);
+        all[fields.length] = field;
+        return all;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.deals.service;
+
+import com.example.deals.result.RowResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Import meters, all under {@code deals.import}:
+ * <ul>
+ *   <li>{@code deals.import.stage} timer tagged {@code stage}: time spent parsing, validating, checking the database
+ *   for existing deals and inserting. One sample covers a chunk of rows, or a single row when rows are imported one
+ *   at a time, so the per-row path never pays for more than a clock read or two.</li>
+ *   <li>{@code deals.import.rows} counter tagged {@code outcome}: rows by result status.</li>
+ *   <li>{@code deals.import.file.size} summary: upload size in bytes, when known.</li>
+ *   <li>{@code deals.import.duration} timer: whole imports, including failed ones.</li>
+ *   <li>{@code deals.import.wait} timer: time imports waited for a free slot under the concurrency limit.</li>
+ *   <li>{@code deals.import.in.flight} gauge tagged {@code resource}: upload bytes admitted and rows held in
+ *   memory by running imports, against the admission limits.</li>
+ *   <li>{@code deals.import.rejected} counter: uploads turned away because admission found no room in time.</li>
+ *   <li>{@code deals.import.queue.depth} gauge tagged {@code queue}: chunks of pipelined imports waiting for the
+ *   writer after parsing ({@code parsed}) and chunks being written ({@code writing}), summed over imports.</li>
+ * </ul>
+ * Stage timers publish a percentile histogram so dashboards can aggregate quantiles across instances.
+ */
+@Component
+public class ImportMetrics {
+
+    public enum Stage {
+        PARSE("parse"),
+        VALIDATE("validate"),
+        DB_CHECK("db-check"),
+        INSERT("insert");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Queue {
+        PARSED("parsed"),
+        WRITING("writing");
+
+        private final String tag;
+
+        Queue(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Resource {
+        BYTES("bytes"),
+        ROWS("rows");
+
+        private final String tag;
+
+        Resource(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer[] stages = new Timer[Stage.values().length];
+    private final Counter successes;
+    private final Counter duplicates;
+    private final Counter failures;
+    private final DistributionSummary fileSize;
+    private final Timer duration;
+    private final Timer wait;
+    private final AtomicInteger[] queues = new AtomicInteger[Queue.values().length];
+    private final AtomicLong[] inFlight = new AtomicLong[Resource.values().length];
+    private final Counter rejected;
+
+    public ImportMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()] = Timer.builder("deals.import.stage")
+                    .description("Time spent in each import stage, per chunk of rows")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        successes = rows(registry, "success");
+        duplicates = rows(registry, "duplicate");
+        failures = rows(registry, "failure");
+        fileSize = DistributionSummary.builder("deals.import.file.size")
+                .description("Size of imported uploads")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        duration = Timer.builder("deals.import.duration")
+                .description("Time to import a whole upload")
+                .publishPercentileHistogram()
+                .register(registry);
+        wait = Timer.builder("deals.import.wait")
+                .description("Time an import waited to start under the concurrency limit")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (Queue queue : Queue.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            queues[queue.ordinal()] = depth;
+            Gauge.builder("deals.import.queue.depth", depth, AtomicInteger::get)
+                    .description("Chunks waiting between import pipeline stages")
+                    .tag("queue", queue.tag)
+                    .register(registry);
+        }
+        for (Resource resource : Resource.values()) {
+            AtomicLong amount = new AtomicLong();
+            inFlight[resource.ordinal()] = amount;
+            Gauge.builder("deals.import.in.flight", amount, AtomicLong::get)
+                    .description("Upload bytes and rows held by running imports")
+                    .tag("resource", resource.tag)
+                    .register(registry);
+        }
+        rejected = Counter.builder("deals.import.rejected")
+                .description("Uploads rejected by import admission")
+                .register(registry);
+    }
+
+    private static Counter rows(MeterRegistry registry, String outcome) {
+        return Counter.builder("deals.import.rows")
+                .description("Imported rows by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public void record(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs {@code action} and records its time against {@code stage}, whether or not it throws.
+     */
+    public <T> T time(Stage stage, Supplier<T> action) {
+        long started = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(stage, System.nanoTime() - started);
+        }
+    }
+
+    public void waited(long nanos) {
+        wait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void inFlight(Resource resource, long delta) {
+        inFlight[resource.ordinal()].addAndGet(delta);
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void queued(Queue queue, int delta) {
+        queues[queue.ordinal()].addAndGet(delta);
+    }
+
+    public int queueDepth(Queue queue) {
+        return queues[queue.ordinal()].get();
+    }
+
+    public void row(RowResult result) {
+        switch (result.status()) {
+            case "SUCCESS" -> successes.increment();
+            case "DUPLICATE" -> duplicates.increment();
+            default -> failures.increment();
+        }
+    }
+
+    /**
+     * Records a finished import; {@code uploadSizeBytes} is negative when the size is unknown.
+     */
+    public void imported(long uploadSizeBytes, long nanos) {
+        if (uploadSizeBytes >= 0) {
+            fileSize.record(uploadSizeBytes);
+        }
+        duration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.parser.DealParser;
+import com.example.deals.result.RowResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a chunked import as three stages joined by bounded queues, so parsing, validation and database writes
+ * overlap instead of taking turns:
+ * <ol>
+ *   <li>a parser thread per import pulls rows into chunks and hands each chunk to the validator pool;</li>
+ *   <li>validator threads, shared by all imports, check every row of a chunk;</li>
+ *   <li>the importing thread takes validated chunks in file order, prepares them (the in-file duplicate check has
+ *   to see rows in order) and either writes them itself or passes them to the shared writer pool.</li>
+ * </ol>
+ * Results are emitted on the importing thread in file order. At most {@code queue-capacity} chunks wait between
+ * the parser and the writer and at most {@code writers} chunks of an import are being written, so a slow stage
+ * holds back the ones before it rather than letting the file pile up in memory.
+ */
+final class ImportPipeline {
+
+    private static final Future<List<DealParser.RowData>> END = CompletableFuture.completedFuture(List.of());
+
+    private final ImportProperties.Pipeline properties;
+    private final ImportMetrics metrics;
+    private final ImportThreads threads;
+    private final ThreadFactory parserThreads;
+
+    private volatile ExecutorService validators;
+    private volatile ExecutorService writers;
+
+    ImportPipeline(ImportProperties.Pipeline properties, ImportMetrics metrics, ImportThreads threads) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.threads = threads;
+        this.parserThreads = threads.factory("import-parse-");
+    }
+
+    /**
+     * @param budget   row credit, taken by the parser per chunk and given back once the chunk is emitted
+     * @param validate runs on a validator thread for every row
+     * @param prepare  runs on the calling thread, once per chunk and in file order
+     * @param persist  runs on a writer thread, or on the calling thread with a single writer
+     * @param emit     runs on the calling thread, once per chunk and in file order
+     */
+    <P> void run(Iterator<DealParser.RowData> rows, int chunkSize, ImportScheduler.RowBudget budget,
+                 UnaryOperator<DealParser.RowData> validate, Function<List<DealParser.RowData>, P> prepare,
+                 Function<P, List<RowResult>> persist, BiConsumer<P, List<RowResult>> emit) {
+        BlockingQueue<Future<List<DealParser.RowData>>> parsed = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Parser parser = new Parser(rows, chunkSize, budget, validate, parsed);
+        // The parser takes the same credit for every chunk; whatever is not given back here the budget's owner
+        // returns when the import ends
+        long credit = budget.creditFor(chunkSize);
+        BiConsumer<P, List<RowResult>> emitted = (chunk, results) -> {
+            emit.accept(chunk, results);
+            budget.give(credit);
+        };
+        Thread parserThread = parserThreads.newThread(parser);
+        parserThread.start();
+
+        Deque<Writing<P>> writing = new ArrayDeque<>();
+        boolean finished = false;
+        try {
+            Future<List<DealParser.RowData>> next;
+            while ((next = take(parsed)) != END) {
+                P chunk = prepare.apply(awaitParsed(next, writing, emitted));
+                if (properties.getWriters() <= 1) {
+                    emitted.accept(chunk, persist.apply(chunk));
+                    continue;
+                }
+                if (writing.size() == properties.getWriters()) {
+                    emitFirst(writing, emitted);
+                }
+                writing.add(new Writing<>(chunk, writers().submit(() -> persist.apply(chunk))));
+                metrics.queued(ImportMetrics.Queue.WRITING, 1);
+            }
+            while (!writing.isEmpty()) {
+                emitFirst(writing, emitted);
+            }
+            finished = true;
+        } finally {
+            if (!finished) {
+                abort(parser, parserThread, parsed, writing);
+            }
+            joinQuietly(parserThread);
+        }
+    }
+
+    /**
+     * A parse error is raised only after the chunks before it are emitted, as in the sequential import.
+     */
+    private <P> List<DealParser.RowData> awaitParsed(Future<List<DealParser.RowData>> parsed, Deque<Writing<P>> writing,
+                                                     BiConsumer<P, List<RowResult>> emit) {
+        try {
+            return await(parsed);
+        } catch (RuntimeException | Error e) {
+            while (!writing.isEmpty()) {
+                emitFirst(writing, emit);
+            }
+            throw e;
+        }
+    }
+
+    private <P> void emitFirst(Deque<Writing<P>> writing, BiConsumer<P, List<RowResult>> emit) {
+        Writing<P> first = writing.peek();
+        List<RowResult> results = await(first.results());
+        writing.poll();
+        metrics.queued(ImportMetrics.Queue.WRITING, -1);
+        emit.accept(first.chunk(), results);
+    }
+
+    private Future<List<DealParser.RowData>> take(BlockingQueue<Future<List<DealParser.RowData>>> parsed) {
+        try {
+            Future<List<DealParser.RowData>> next = parsed.take();
+            if (next != END) {
+                metrics.queued(ImportMetrics.Queue.PARSED, -1);
+            }
+            return next;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for parsed rows");
+        }
+    }
+
+    /**
+     * Stops the parser and lets writes already started finish, so nothing of this import runs after it returns.
+     */
+    private <P> void abort(Parser parser, Thread parserThread, BlockingQueue<Future<List<DealParser.RowData>>> parsed,
+                           Deque<Writing<P>> writing) {
+        parser.cancelled = true;
+        parserThread.interrupt();
+        joinQuietly(parserThread);
+
+        Future<List<DealParser.RowData>> left;
+        while ((left = parsed.poll()) != null) {
+            if (left != END) {
+                left.cancel(false);
+                metrics.queued(ImportMetrics.Queue.PARSED, -1);
+            }
+        }
+        for (Writing<P> write : writing) {
+            try {
+                write.results().get();
+            } catch (Exception ignored) {
+                // The import already failed with its own exception
+            }
+            metrics.queued(ImportMetrics.Queue.WRITING, -1);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an import stage");
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExecutorService validators() {
+        ExecutorService pool = validators;
+        if (pool == null) {
+            synchronized (this) {
+                if (validators == null) {
+                    // Validation is CPU-bound, so these stay platform threads
+                    validators = Executors.newFixedThreadPool(properties.effectiveValidators(),
+                            ImportThreads.platformFactory("import-validate-"));
+                }
+                pool = validators;
+            }
+        }
+        return pool;
+    }
+
+    private ExecutorService writers() {
+        ExecutorService pool = writers;
+        if (pool == null) {
+            synchronized (this) {
+                if (writers == null) {
+                    writers = Executors.newFixedThreadPool(properties.getWriters(),
+                            threads.factory("import-write-"));
+                }
+                pool = writers;
+            }
+        }
+        return pool;
+    }
+
+    void shutdown() {
+        if (validators != null) {
+            validators.shutdownNow();
+        }
+        if (writers != null) {
+            writers.shutdownNow();
+        }
+    }
+
+    private record Writing<P>(P chunk, Future<List<RowResult>> results) {}
+
+    /**
+     * Pulls rows into chunks and queues each chunk's validation. A parse error is queued after the chunks before
+     * it, so the importing thread sees it at the same point the sequential import would.
+     */
+    private final class Parser implements Runnable {
+
+        private final Iterator<DealParser.RowData> rows;
+        private final int chunkSize;
+        private final ImportScheduler.RowBudget budget;
+        private final UnaryOperator<DealParser.RowData> validate;
+        private final BlockingQueue<Future<List<DealParser.RowData>>> parsed;
+        private volatile boolean cancelled;
+
+        Parser(Iterator<DealParser.RowData> rows, int chunkSize, ImportScheduler.RowBudget budget,
+               UnaryOperator<DealParser.RowData> validate, BlockingQueue<Future<List<DealParser.RowData>>> parsed) {
+            this.rows = rows;
+            this.chunkSize = chunkSize;
+            this.budget = budget;
+            this.validate = validate;
+            this.parsed = parsed;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<DealParser.RowData> chunk = new ArrayList<>(chunkSize);
+                long parseStarted = System.nanoTime();
+                while (!cancelled && rows.hasNext()) {
+                    if (chunk.isEmpty()) {
+                        // Waiting for credit is not parsing
+                        long parsed = System.nanoTime() - parseStarted;
+                        budget.take(chunkSize);
+                        parseStarted = System.nanoTime() - parsed;
+                    }
+                    chunk.add(rows.next());
+                    if (chunk.size() == chunkSize) {
+                        metrics.record(ImportMetrics.Stage.PARSE, System.nanoTime() - parseStarted);
+                        queue(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                        parseStarted = System.nanoTime();
+                    }
+                }
+                if (!chunk.isEmpty() && !cancelled) {
+                    metrics.record(ImportMetrics.Stage.PARSE, System.nanoTime() - parseStarted);
+                    queue(chunk);
+                }
+                parsed.put(END);
+            } catch (InterruptedException e) {
+                // Cancelled by the importing thread, which no longer reads the queue
+            } catch (RuntimeException | Error e) {
+                if (!cancelled) {
+                    put(CompletableFuture.failedFuture(e));
+                }
+            }
+        }
+
+        private void queue(List<DealParser.RowData> chunk) throws InterruptedException {
+            Future<List<DealParser.RowData>> validated = validators().submit(() -> {
+                long validateStarted = System.nanoTime();
+                List<DealParser.RowData> rows = chunk.stream().map(validate).toList();
+                metrics.record(ImportMetrics.Stage.VALIDATE, System.nanoTime() - validateStarted);
+                return rows;
+            });
+            try {
+                parsed.put(validated);
+            } catch (InterruptedException e) {
+                validated.cancel(false);
+                throw e;
+            }
+            metrics.queued(ImportMetrics.Queue.PARSED, 1);
+        }
+
+        private void put(Future<List<DealParser.RowData>> failure) {
+            try {
+                parsed.put(failure);
+                metrics.queued(ImportMetrics.Queue.PARSED, 1);
+            } catch (InterruptedException e) {
+                // Cancelled while reporting; the importing thread has its own exception
+            }
+        }
+    }
+}
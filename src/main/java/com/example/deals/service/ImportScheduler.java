@@ -0,0 +1,180 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global admission control for imports, shared fairly between callers and between imports:
+ * <ul>
+ *   <li>Upload bytes: a request is admitted before its body is read, for its full declared size, and holds it
+ *   until its response completes. Callers take turns, no caller holds more than {@code caller-share} of
+ *   {@code max-bytes}, and a request that cannot get in within {@code max-wait} is turned away with a
+ *   Retry-After hint. An upload larger than one caller's share could never be charged in full, so it is not
+ *   admitted at all.</li>
+ *   <li>Rows in memory: an import takes credit for each chunk before reading it and returns it once the chunk's
+ *   results are out. Imports take turns per chunk, so a small upload waits for one chunk of a large one, not
+ *   for the whole file.</li>
+ * </ul>
+ */
+@Component
+public class ImportScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportScheduler.class);
+
+    private final ImportProperties.Admission properties;
+    private final ImportMetrics metrics;
+    private final FairShare bytes;
+    private final FairShare rows;
+
+    public ImportScheduler(ImportProperties properties, ImportMetrics metrics) {
+        this.properties = properties.getAdmission();
+        this.metrics = metrics;
+        long maxBytes = this.properties.getMaxBytes().toBytes();
+        this.bytes = new FairShare(maxBytes, Math.max(1, (long) (maxBytes * this.properties.getCallerShare())));
+        this.rows = new FairShare(this.properties.getMaxRows(), this.properties.getMaxRows());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Duration getRetryAfter() {
+        return properties.getRetryAfter();
+    }
+
+    /**
+     * The largest upload one caller may have admitted: {@code caller-share} of {@code max-bytes}.
+     */
+    public long getMaxUploadBytes() {
+        return bytes.ownerLimit();
+    }
+
+    /**
+     * Waits up to {@code max-wait} for room for an upload of {@code sizeBytes} from {@code caller}, charging its
+     * full size so the admitted uploads never add up to more than {@code max-bytes}. An unknown size (negative)
+     * is charged {@link #getMaxUploadBytes}, which the multipart request limit must not exceed.
+     *
+     * @return the admission to close when the request completes, or empty if there was no room in time
+     * @throws IllegalArgumentException when {@code sizeBytes} is above {@link #getMaxUploadBytes}
+     * @throws CancellationException when the thread is interrupted while waiting
+     */
+    public Optional<Admission> admit(String caller, long sizeBytes) {
+        if (sizeBytes > getMaxUploadBytes()) {
+            throw new IllegalArgumentException(
+                    "Upload of " + sizeBytes + " bytes exceeds the " + getMaxUploadBytes() + " a caller may hold");
+        }
+        long wanted = sizeBytes < 0 ? getMaxUploadBytes() : sizeBytes;
+        long granted;
+        try {
+            granted = bytes.acquire(caller, wanted, properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for import admission");
+        }
+        if (granted < 0) {
+            metrics.rejected();
+            log.warn("Rejected import of {} bytes from {}: {} bytes already admitted", sizeBytes, caller,
+                    bytes.inUse());
+            return Optional.empty();
+        }
+        metrics.inFlight(ImportMetrics.Resource.BYTES, granted);
+        return Optional.of(new Admission(caller, granted));
+    }
+
+    /**
+     * Row credit for one import; close it when the import ends to return whatever it still holds.
+     */
+    public RowBudget rowBudget() {
+        return new RowBudget();
+    }
+
+    public final class Admission implements AutoCloseable {
+
+        private final String caller;
+        private final long granted;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Admission(String caller, long granted) {
+            this.caller = caller;
+            this.granted = granted;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                bytes.release(caller, granted);
+                metrics.inFlight(ImportMetrics.Resource.BYTES, -granted);
+            }
+        }
+    }
+
+    /**
+     * Credit may be taken on one thread and given back on another, as the import pipeline does.
+     */
+    public final class RowBudget implements AutoCloseable {
+
+        private final AtomicLong held = new AtomicLong();
+
+        private RowBudget() {
+        }
+
+        /**
+         * Blocks until {@code count} rows, clamped to {@code max-rows}, may be read.
+         *
+         * @return the credit taken, to {@link #give} back
+         */
+        public long take(int count) throws InterruptedException {
+            long granted = rows.acquire(this, count, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            held.addAndGet(granted);
+            metrics.inFlight(ImportMetrics.Resource.ROWS, granted);
+            return granted;
+        }
+
+        /**
+         * {@link #take} for callers that cannot throw {@link InterruptedException}.
+         *
+         * @throws CancellationException when the thread is interrupted while waiting
+         */
+        public long takeOrCancel(int count) {
+            try {
+                return take(count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for row credit");
+            }
+        }
+
+        /**
+         * The credit {@link #take take(count)} returns.
+         */
+        public long creditFor(int count) {
+            return rows.clamp(count);
+        }
+
+        public void give(long credit) {
+            held.addAndGet(-credit);
+            release(credit);
+        }
+
+        @Override
+        public void close() {
+            release(held.getAndSet(0));
+        }
+
+        private void release(long credit) {
+            if (credit > 0) {
+                rows.release(this, credit);
+                metrics.inFlight(ImportMetrics.Resource.ROWS, -credit);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Threads that run imports and the limit on how many imports run at once.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21 or later, import job workers and the parser and writer
+ * threads of pipelined imports are virtual threads, as Tomcat request threads are then. On older runtimes the
+ * setting is ignored with a warning. Validator threads stay platform threads since validation is CPU-bound.
+ * <p>
+ * Imports take a permit before touching the database, so at most {@code deals.import.max-concurrent} run at once
+ * and the rest wait in arrival order instead of timing out on the connection pool. Each running import holds one
+ * connection per pipeline writer, so by default the limit is the Hikari pool size divided by the writers.
+ */
+@Component
+public class ImportThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportThreads.class);
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final boolean virtual;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final ImportMetrics metrics;
+
+    public ImportThreads(ImportProperties properties, DataSource dataSource, ImportMetrics metrics) {
+        this.virtual = properties.isVirtualThreads() && virtualThreadsSupported();
+        int configured = properties.getMaxConcurrent();
+        this.maxConcurrent = configured > 0
+                ? configured
+                : Math.max(1, poolSize(dataSource) / Math.max(1, properties.getPipeline().getWriters()));
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.metrics = metrics;
+
+        if (properties.isVirtualThreads() && !virtual) {
+            log.warn("Virtual threads need Java 21 or later, running imports on platform threads on Java {}",
+                    Runtime.version().feature());
+        }
+        log.info("Imports run on {} threads, at most {} at once", virtual ? "virtual" : "platform", maxConcurrent);
+    }
+
+    private static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not read the connection pool size: {}", ex.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Threads named {@code namePrefix} followed by a counter; virtual threads when enabled.
+     */
+    public ThreadFactory factory(String namePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return platformFactory(namePrefix);
+    }
+
+    public static ThreadFactory platformFactory(String namePrefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> new Thread(r, namePrefix + count.incrementAndGet());
+    }
+
+    /**
+     * Runs {@code importTask} once a permit is free, waiting as long as it takes.
+     *
+     * @throws CancellationException when the thread is interrupted while waiting
+     */
+    public <T> T limited(Supplier<T> importTask) {
+        long waitStarted = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting to start an import");
+        }
+        metrics.waited(System.nanoTime() - waitStarted);
+        try {
+            return importTask.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
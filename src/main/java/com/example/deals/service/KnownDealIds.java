@@ -0,0 +1,89 @@
+package com.example.deals.service;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.dedup.DealIdBloomFilter;
+import com.example.deals.repository.DealJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter of the dealIds stored in the {@code deals} table, loaded once in the background at startup and
+ * kept current by the imports of this instance. Only the JPA batch writer checks ids before inserting; the JDBC
+ * and COPY writers leave duplicates to {@code ON CONFLICT}, so with them the table is not scanned and no filter is
+ * held. Until loading finishes, or when not loaded at all, every id is reported as possibly known so callers fall
+ * back to the exact database check.
+ */
+@Component
+public class KnownDealIds {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownDealIds.class);
+
+    private final DealJdbcRepository jdbcRepository;
+    private final ImportProperties.KnownIds properties;
+    private final ImportProperties.BatchWriter batchWriter;
+
+    private volatile DealIdBloomFilter filter;
+    private volatile boolean loaded;
+
+    public KnownDealIds(DealJdbcRepository jdbcRepository, ImportProperties properties) {
+        this.jdbcRepository = jdbcRepository;
+        this.properties = properties.getKnownIds();
+        this.batchWriter = properties.getBatchWriter();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadInBackground() {
+        if (properties.isEnabled() && batchWriter == ImportProperties.BatchWriter.JPA) {
+            Thread loader = new Thread(this::load, "known-deal-ids-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /**
+     * Sizes the filter from the current table, then scans every stored id into it. Ids added while the scan runs
+     * go into the same filter, so none are lost.
+     */
+    public void load() {
+        try {
+            long existing = jdbcRepository.countDeals();
+            filter = new DealIdBloomFilter(Math.max(properties.getExpectedIds(), existing * 2),
+                    properties.getFalsePositiveRate());
+            long started = System.nanoTime();
+
+            jdbcRepository.forEachDealId(filter::put);
+
+            loaded = true;
+            log.info("Loaded {} known deal ids into a {} bit Bloom filter in {} ms", existing, filter.bitSize(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            filter = null;
+            log.warn("Could not load known deal ids, every import row will be checked against the database: {}",
+                    ex.getMessage());
+        }
+    }
+
+    /**
+     * False only when {@code dealId} is certainly not in the table, or at least was not when it was last seen by
+     * this instance. Another writer may insert it afterwards, so inserts relying on a false answer must still
+     * handle a unique violation.
+     */
+    public boolean mightExist(String dealId) {
+        DealIdBloomFilter f = filter;
+        return !loaded || f == null || f.mightContain(dealId);
+    }
+
+    public void add(String dealId) {
+        DealIdBloomFilter f = filter;
+        if (f != null) {
+            f.put(dealId);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.deals.validation;
+
+import com.example.deals.dto.DealRequest;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Hand-specialized equivalent of running Bean Validation over {@link DealRequest}: one direct check per
+ * constraint, with the message taken from the annotation so both modes report the same text. Any constraint
+ * added to {@code DealRequest} must be mirrored here or validated in {@link DealValidator.Mode#BEAN} mode.
+ */
+final class CompiledDealConstraints {
+
+    private static final String DEAL_ID_NOT_BLANK = notBlankMessage("dealId");
+
+    private CompiledDealConstraints() {}
+
+    /**
+     * Returns the violated constraint's message, or null when {@code dealId} is valid.
+     */
+    static String checkDealId(DealRequest req) {
+        return isBlank(req.getDealId()) ? DEAL_ID_NOT_BLANK : null;
+    }
+
+    // Same rule as Hibernate Validator's NotBlankValidator: null, or nothing left after String.trim()
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String notBlankMessage(String field) {
+        try {
+            return DealRequest.class.getDeclaredField(field).getAnnotation(NotBlank.class).message();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("DealRequest has no field " + field, e);
+        }
+    }
+}
@@ -1,79 +1,165 @@
 package com.example.deals.validation;
 
+import com.example.deals.config.ImportProperties;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.exception.DealValidationException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class DealValidator {
 
-    private final Validator beanValidator =
-            Validation.buildDefaultValidatorFactory().getValidator();
+    /**
+     * How the {@link DealRequest} constraint annotations are checked. Both report identical messages;
+     * {@code BEAN} runs the full Bean Validation engine and picks up custom constraints without code changes.
+     */
+    public enum Mode { COMPILED, BEAN }
+
+    private final Mode mode;
+    private final Validator beanValidator;
+
+    public DealValidator() {
+        this(Mode.COMPILED);
+    }
+
+    @Autowired
+    public DealValidator(ImportProperties properties) {
+        this(properties.getValidation());
+    }
+
+    public DealValidator(Mode mode) {
+        this.mode = mode;
+        this.beanValidator = mode == Mode.BEAN ? Validation.buildDefaultValidatorFactory().getValidator() : null;
+    }
 
     public void validate(DealRequest req) {
-        validateBean(req);
+        parse(req);
+    }
+
+    /**
+     * Validates the row and returns it converted to the stored types, for callers that want invalid rows
+     * to surface as an exception.
+     *
+     * @throws DealValidationException listing every field that fails validation
+     */
+    public ValidatedDeal parse(DealRequest req) {
+        ValidationOutcome outcome = check(req);
+        if (!outcome.isValid()) {
+            throw new DealValidationException(outcome.error());
+        }
+        return outcome.deal();
+    }
+
+    /**
+     * Validates every field and returns either the typed deal or all the errors found. Each field is parsed
+     * exactly once and nothing is thrown for invalid input, so dirty uploads cost no more than clean ones.
+     */
+    public ValidationOutcome check(DealRequest req) {
+        Errors errors = new Errors();
+
+        validateBean(req, errors);
 
 //        if (req.getDealId() == null || req.getDealId().isBlank()) {
 //            throw new DealValidationException("DealId is required");
 //        }
 
-        validateIsoCurrency(req.getFromCurrency(), "fromCurrency");
-        validateIsoCurrency(req.getToCurrency(), "toCurrency");
+        validateIsoCurrency(req.getFromCurrency(), "fromCurrency", errors);
+        validateIsoCurrency(req.getToCurrency(), "toCurrency", errors);
+
+        Instant timestamp = parseTimestamp(req.getTimestamp(), errors);
 
-        validateTimestamp(req.getTimestamp());
+        BigDecimal amount = parseAmount(req.getAmountStr(), errors);
 
-        validateAmount(req.getAmountStr());
+        if (errors.messages != null) {
+            return ValidationOutcome.invalid(errors.messages);
+        }
+        return ValidationOutcome.valid(
+                new ValidatedDeal(req.getDealId(), req.getFromCurrency(), req.getToCurrency(), timestamp, amount));
     }
 
-    private void validateBean(DealRequest req) {
-        Set<ConstraintViolation<DealRequest>> violations = beanValidator.validate(req);
-        if (!violations.isEmpty()) {
-            StringBuilder sb = new StringBuilder();
-            violations.forEach(v -> sb.append(v.getMessage()).append("; "));
-            throw new DealValidationException(sb.toString());
+    private void validateBean(DealRequest req, Errors errors) {
+        if (mode == Mode.COMPILED) {
+            String dealIdError = CompiledDealConstraints.checkDealId(req);
+            if (dealIdError != null) {
+                errors.add(dealIdError);
+            }
+            return;
+        }
+        for (ConstraintViolation<DealRequest> violation : beanValidator.validate(req)) {
+            errors.add(violation.getMessage());
         }
     }
 
-    private void validateIsoCurrency(String currency, String field) {
-        if (currency == null || !currency.matches("[A-Z]{3}")) {
-            throw new DealValidationException(field + " must be a 3-letter ISO code");
+    private void validateIsoCurrency(String currency, String field, Errors errors) {
+        if (!FieldParsers.isIsoCurrency(currency)) {
+            errors.add(field + " must be a 3-letter ISO code");
         }
     }
 
-    private void validateTimestamp(String timestamp) {
+    private Instant parseTimestamp(String timestamp, Errors errors) {
         if (timestamp == null || timestamp.isBlank()) {
-            throw new DealValidationException("Timestamp is required");
+            errors.add("Timestamp is required");
+            return null;
         }
 
-        Instant dealTime;
-        try {
-            dealTime = Instant.parse(timestamp);
-        } catch (Exception e) {
-            throw new DealValidationException("Invalid timestamp format: " + timestamp);
+        Instant dealTime = FieldParsers.parseInstant(timestamp);
+        if (dealTime == null) {
+            try {
+                dealTime = Instant.parse(timestamp);
+            } catch (Exception e) {
+                errors.add("Invalid timestamp format: " + timestamp);
+                return null;
+            }
         }
 
         if (dealTime.isAfter(Instant.now())) {
-            throw new DealValidationException("Timestamp cannot be in the future: " + timestamp);
+            errors.add("Timestamp cannot be in the future: " + timestamp);
         }
+        return dealTime;
     }
 
-    private void validateAmount(String amountStr) {
+    private BigDecimal parseAmount(String amountStr, Errors errors) {
         if (amountStr == null || amountStr.isBlank()) {
-            throw new DealValidationException("Amount is required");
+            errors.add("Amount is required");
+            return null;
+        }
+
+        BigDecimal amount = FieldParsers.parseDecimal(amountStr);
+        if (amount == null) {
+            try {
+                amount = new BigDecimal(amountStr);
+            } catch (NumberFormatException e) {
+                errors.add("Amount is not a valid number: " + amountStr);
+                return null;
+            }
         }
-        try {
-            double val = Double.parseDouble(amountStr);
-            if (val <= 0) {
-                throw new DealValidationException("Amount must be positive");
+
+        if (amount.signum() <= 0) {
+            errors.add("Amount must be positive");
+        }
+        return amount;
+    }
+
+    /**
+     * Error messages in field order; the list is only allocated once a row turns out to be invalid.
+     */
+    private static final class Errors {
+
+        private List<String> messages;
+
+        void add(String message) {
+            if (messages == null) {
+                messages = new ArrayList<>(2);
             }
-        } catch (NumberFormatException e) {
-            throw new DealValidationException("Amount is not a valid number: " + amountStr);
+            messages.add(message);
         }
     }
-}
\ No newline at end of file
+}
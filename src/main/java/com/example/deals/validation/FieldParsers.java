@@ -0,0 +1,142 @@
+package com.example.deals.validation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Hand-written parsers for the field shapes found in almost every upload. Each returns null, rather than
+ * throwing, when the input is not in the common shape so the caller can fall back to the JDK parser and
+ * keep its exact acceptance rules.
+ */
+final class FieldParsers {
+
+    // Unscaled values with up to 18 digits always fit in a long
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private FieldParsers() {}
+
+    static boolean isIsoCurrency(String value) {
+        if (value == null || value.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm:ss[.fraction]Z}, the form {@link Instant#toString()} produces.
+     * Offsets, lowercase separators, leap seconds and out-of-range fields are left to {@link Instant#parse}.
+     */
+    static Instant parseInstant(String s) {
+        int len = s.length();
+        if (len < 20 || len > 30 || s.charAt(len - 1) != 'Z'
+                || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return null;
+        }
+
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+
+        int nanos = 0;
+        if (len > 20) {
+            int fractionDigits = len - 21;
+            if (s.charAt(19) != '.' || fractionDigits == 0) {
+                return null;
+            }
+            nanos = digits(s, 20, fractionDigits);
+            if (nanos < 0) {
+                return null;
+            }
+            for (int i = fractionDigits; i < 9; i++) {
+                nanos *= 10;
+            }
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+
+    /**
+     * Parses plain decimals such as {@code 1000}, {@code -12.50} or {@code .5} with at most 18 digits into
+     * the same value and scale {@code new BigDecimal(s)} would give. Exponents and longer numbers return null.
+     */
+    static BigDecimal parseDecimal(String s) {
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+            negative = s.charAt(0) == '-';
+            i = 1;
+        }
+
+        long unscaled = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitCount > MAX_FAST_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (point) {
+                    scale++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return null;
+            }
+        }
+
+        if (digitCount == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+}
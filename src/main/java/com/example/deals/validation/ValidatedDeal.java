@@ -0,0 +1,9 @@
+package com.example.deals.validation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A row that passed validation, with every field already converted to the type it is stored as.
+ */
+public record ValidatedDeal(String dealId, String fromCurrency, String toCurrency, Instant timestamp, BigDecimal amount) {}
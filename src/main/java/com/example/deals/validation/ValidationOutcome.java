@@ -0,0 +1,37 @@
+package com.example.deals.validation;
+
+import java.util.List;
+
+/**
+ * Result of validating one row: either the typed deal or every error found, in field order.
+ */
+public record ValidationOutcome(ValidatedDeal deal, List<String> errors) {
+
+    /**
+     * Joins the errors of one row in {@link #error()}.
+     */
+    public static final String SEPARATOR = "; ";
+
+    public static ValidationOutcome valid(ValidatedDeal deal) {
+        return new ValidationOutcome(deal, List.of());
+    }
+
+    public static ValidationOutcome invalid(String error) {
+        return new ValidationOutcome(null, List.of(error));
+    }
+
+    public static ValidationOutcome invalid(List<String> errors) {
+        return new ValidationOutcome(null, List.copyOf(errors));
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * All errors as one message, or null when the row is valid.
+     */
+    public String error() {
+        return isValid() ? null : String.join(SEPARATOR, errors);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.deals.integration;
+
+import com.example.deals.model.Deal;
+import com.example.deals.repository.DealCopyRepository;
+import com.example.deals.repository.DealJdbcRepository;
+import com.example.deals.repository.DealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealIdAllocationIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private DealRepository repo;
+
+    @Autowired
+    private DealJdbcRepository jdbcRepository;
+
+    @Autowired
+    private DealCopyRepository copyRepository;
+
+    @BeforeEach
+    void cleanup() {
+        repo.deleteAll();
+    }
+
+    private static List<Deal> deals(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Deal deal = new Deal();
+            deal.setDealId(prefix + i);
+            deal.setFromCurrency("USD");
+            deal.setToCurrency("EUR");
+            deal.setDealTimestamp(Instant.now());
+            deal.setAmount(BigDecimal.TEN);
+            return deal;
+        }).toList();
+    }
+
+    @Test
+    void allWritersShareDenseIdBlocks() {
+        for (Deal deal : deals("J", 120)) {
+            jdbcRepository.insertIfAbsent(deal);
+        }
+        copyRepository.copyAndMerge(deals("C", 100));
+        repo.saveAll(deals("H", 100));
+
+        List<Long> ids = repo.findAll().stream().map(Deal::getId).toList();
+        long span = ids.stream().mapToLong(Long::longValue).max().orElseThrow()
+                - ids.stream().mapToLong(Long::longValue).min().orElseThrow() + 1;
+
+        assertThat(ids).hasSize(320).doesNotHaveDuplicates();
+        // Each writer leaves at most the unused rest of one block behind, not 49 ids per row
+        assertThat(span).isLessThanOrEqualTo(320 + 3L * Deal.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    void jpaAndAllocatorBlocksNeverOverlap() {
+        // Each writer takes a fresh block right after the other; with Hibernate's default pooled optimizer the JPA
+        // block would reach back into the block the allocator just reserved
+        jdbcRepository.insertIfAbsent(deals("J", 1).get(0));
+        repo.saveAll(deals("H", 60));
+        copyRepository.copyAndMerge(deals("C", 60));
+        repo.saveAll(deals("I", 60));
+        jdbcRepository.insertIfAbsent(deals("K", 1).get(0));
+
+        List<Long> ids = repo.findAll().stream().map(Deal::getId).toList();
+
+        assertThat(ids).hasSize(182).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.deals.integration;
+
+import com.example.deals.dto.DealRequest;
+import com.example.deals.parser.DealParser;
+import com.example.deals.repository.DealRepository;
+import com.example.deals.repository.ImportCheckpointRepository;
+import com.example.deals.result.RowResult;
+import com.example.deals.service.DealImportService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DealImportCheckpointIT extends AbstractIntegrationTest {
+
+    private static final String HASH = "checkpoint-it";
+
+    @Autowired
+    private DealRepository repo;
+
+    @Autowired
+    private ImportCheckpointRepository checkpoints;
+
+    @Autowired
+    private DealImportService service;
+
+    @BeforeEach
+    void cleanup() {
+        repo.deleteAll();
+        checkpoints.delete(HASH);
+    }
+
+    @Test
+    void resubmittedFile_resumesAfterCheckpoint() {
+        checkpoints.advance(HASH, 4);
+        List<RowResult> results = new ArrayList<>();
+
+        int resumedAfter = service.importRows(rows(), -1, false, HASH, results::add);
+
+        assertThat(resumedAfter).isEqualTo(4);
+        assertThat(results).extracting(RowResult::dealId).containsExactly("CP5", "CP6");
+        assertThat(repo.findByDealId("CP4")).isEmpty();
+        assertThat(repo.count()).isEqualTo(2);
+        assertThat(checkpoints.lastCommittedRow(HASH)).isEmpty();
+    }
+
+    @Test
+    void checkpointOnlyMovesForward() {
+        checkpoints.advance(HASH, 10);
+        checkpoints.advance(HASH, 7);
+
+        assertThat(checkpoints.lastCommittedRow(HASH)).hasValue(10);
+    }
+
+    private static List<DealParser.RowData> rows() {
+        return IntStream.rangeClosed(2, 6).mapToObj(i -> {
+            DealRequest req = new DealRequest();
+            req.setDealId("CP" + i);
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr("100.00");
+            return new DealParser.RowData(i, req);
+        }).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.deals.integration;
 
+import com.example.deals.dedup.DealIdSet;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.model.Deal;
 import com.example.deals.repository.DealRepository;
@@ -11,7 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -46,7 +46,7 @@ class DealImportDuplicateDbIT extends AbstractIntegrationTest {
         req.setTimestamp(Instant.now().toString());
         req.setAmountStr("1000");
 
-        RowResult row = service.importOneRow(new DealParser.RowData(2, req), new HashSet<>());
+        RowResult row = service.importOneRow(new DealParser.RowData(2, req), DealIdSet.exact());
 
         assertThat(row.status()).isEqualTo("DUPLICATE");
         assertThat(repo.count()).isEqualTo(1);
@@ -1,5 +1,6 @@
 package com.example.deals.integration;
 
+import com.example.deals.dedup.DealIdSet;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.repository.DealRepository;
 import com.example.deals.result.RowResult;
@@ -8,9 +9,8 @@ import com.example.deals.parser.DealParser;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.time.Instant;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -51,7 +51,7 @@ class DealImportNoRollbackIT extends AbstractIntegrationTest {
         valid2.setTimestamp(Instant.now().toString());
         valid2.setAmountStr("200");
 
-        Set<String> seen = new HashSet<>();
+        DealIdSet seen = DealIdSet.exact();
         RowResult r1 = service.importOneRow(new DealParser.RowData(1, valid1), seen);
         RowResult r2 = service.importOneRow(new DealParser.RowData(2, invalid), seen);
         RowResult r3 = service.importOneRow(new DealParser.RowData(3, valid2), seen);
@@ -66,4 +66,28 @@ class DealImportNoRollbackIT extends AbstractIntegrationTest {
 
         assertThat(repo.count()).isEqualTo(2);
     }
+
+    @Test
+    void importChunk_invalidRowDoesNotRollBackItsChunk() {
+        DealIdSet seen = DealIdSet.exact();
+        List<RowResult> results = service.importChunk(List.of(
+                new DealParser.RowData(1, deal("NRC1", "100")),
+                new DealParser.RowData(2, deal("NRC2", "")),
+                new DealParser.RowData(3, deal("NRC3", "200"))), seen, false);
+
+        assertThat(results).extracting(RowResult::status).containsExactly("SUCCESS", "FAILURE", "SUCCESS");
+        assertThat(repo.findByDealId("NRC1")).isPresent();
+        assertThat(repo.findByDealId("NRC2")).isEmpty();
+        assertThat(repo.findByDealId("NRC3")).isPresent();
+    }
+
+    private static DealRequest deal(String dealId, String amount) {
+        DealRequest req = new DealRequest();
+        req.setDealId(dealId);
+        req.setFromCurrency("USD");
+        req.setToCurrency("EUR");
+        req.setTimestamp(Instant.now().toString());
+        req.setAmountStr(amount);
+        return req;
+    }
 }
\ No newline at end of file
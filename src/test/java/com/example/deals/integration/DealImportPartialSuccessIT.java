@@ -1,5 +1,6 @@
 package com.example.deals.integration;
 
+import com.example.deals.dedup.DealIdSet;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.repository.DealRepository;
 import com.example.deals.result.RowResult;
@@ -8,8 +9,6 @@ import com.example.deals.parser.DealParser;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,7 +39,7 @@ class DealImportPartialSuccessIT extends AbstractIntegrationTest {
         DealRequest invalid = new DealRequest();
         invalid.setDealId("P2"); // missing fields
 
-        Set<String> seen = new HashSet<>();
+        DealIdSet seen = DealIdSet.exact();
         RowResult r1 = service.importOneRow(new DealParser.RowData(1, valid), seen);
         RowResult r2 = service.importOneRow(new DealParser.RowData(2, invalid), seen);
 
@@ -1,5 +1,6 @@
 package com.example.deals.integration;
 
+import com.example.deals.dedup.DealIdSet;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.model.Deal;
 import com.example.deals.repository.DealRepository;
@@ -10,7 +11,6 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.Instant;
-import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -37,7 +37,7 @@ class DealImportSuccessfulIT extends AbstractIntegrationTest {
         req.setTimestamp(Instant.now().toString());
         req.setAmountStr("1000");
 
-        RowResult row = service.importOneRow(new DealParser.RowData(1, req), new HashSet<>());
+        RowResult row = service.importOneRow(new DealParser.RowData(1, req), DealIdSet.exact());
 
         assertThat(row.status()).isEqualTo("SUCCESS");
         assertThat(repo.findByDealId("S1")).isPresent();
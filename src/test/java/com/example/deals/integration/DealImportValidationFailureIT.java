@@ -1,5 +1,6 @@
 package com.example.deals.integration;
 
+import com.example.deals.dedup.DealIdSet;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.repository.DealRepository;
 import com.example.deals.result.RowResult;
@@ -8,7 +9,6 @@ import com.example.deals.parser.DealParser;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,7 +31,7 @@ class DealImportValidationFailureIT extends AbstractIntegrationTest {
         DealRequest invalid = new DealRequest();
         invalid.setDealId("I1"); // missing currency & amount
 
-        RowResult row = service.importOneRow(new DealParser.RowData(1, invalid), new HashSet<>());
+        RowResult row = service.importOneRow(new DealParser.RowData(1, invalid), DealIdSet.exact());
 
         assertThat(row.status()).isEqualTo("FAILURE");
         assertThat(repo.count()).isEqualTo(0);
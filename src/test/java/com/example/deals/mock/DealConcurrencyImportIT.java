@@ -1,65 +1,158 @@
 package com.example.deals.mock;
 
+import com.example.deals.dedup.DealIdSet;
+import com.example.deals.dto.DealRequest;
 import com.example.deals.integration.AbstractIntegrationTest;
+import com.example.deals.parser.DealParser;
 import com.example.deals.repository.DealRepository;
+import com.example.deals.result.ImportResult;
+import com.example.deals.result.RowResult;
+import com.example.deals.service.DealImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.*;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+/**
+ * Many imports of the same deal IDs at once: each ID must be inserted exactly once and every other attempt must
+ * come back as a clean DUPLICATE, never as a unique-violation FAILURE.
+ */
 @AutoConfigureMockMvc
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DealConcurrencyImportIT extends AbstractIntegrationTest {
 
+    private static final int THREADS = 32;
+    private static final int IDS = 200;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private DealRepository repository;
 
+    @Autowired
+    private DealImportService service;
+
     @BeforeEach
     void cleanDb() {
         repository.deleteAll();
     }
 
     @Test
-    void concurrentImports_noDuplicates() throws InterruptedException {
-        int threads = 5;
-
-        MockMultipartFile file = new MockMultipartFile(
-                "file",
-                "deals.csv",
-                "text/csv",
-                ("dealId,fromCurrency,toCurrency,timestamp,amount\n" +
-                        "D1,USD,EUR,2025-01-01T10:00:00Z,100\n" +
-                        "D2,EUR,USD,2025-01-01T11:00:00Z,200").getBytes()
-        );
-
-        ExecutorService executor = Executors.newFixedThreadPool(threads);
-
-        CountDownLatch latch = new CountDownLatch(threads);
-
-        IntStream.range(0, threads).forEach(i -> executor.submit(() -> {
-            try {
-                mockMvc.perform(multipart("/api/v1/deals/import").file(file))
-                        .andExpect(status().isOk());
-            } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                latch.countDown();
+    void concurrentUploads_reportDuplicatesNotFailures() throws Exception {
+        List<RowResult> results = runConcurrently(rows -> {
+            MvcResult response = mockMvc.perform(multipart("/api/v1/deals/import").file(csv(rows))).andReturn();
+            assertThat(response.getResponse().getStatus()).isEqualTo(200);
+            return objectMapper.readValue(response.getResponse().getContentAsByteArray(), ImportResult.class)
+                    .results();
+        });
+
+        assertCleanOutcome(results);
+    }
+
+    @Test
+    void concurrentPerRowImports_reportDuplicatesNotFailures() throws Exception {
+        List<RowResult> results = runConcurrently(rows -> {
+            DealIdSet seen = DealIdSet.exact();
+            return rows.stream().map(row -> service.importOneRow(row, seen)).toList();
+        });
+
+        assertCleanOutcome(results);
+    }
+
+    @Test
+    void concurrentChunkImports_reportDuplicatesNotFailures() throws Exception {
+        List<RowResult> results = runConcurrently(rows -> service.importChunk(rows, DealIdSet.exact(), false));
+
+        assertCleanOutcome(results);
+    }
+
+    /**
+     * Runs one import per thread, all released at once. A thread that throws fails the test through its future.
+     */
+    private List<RowResult> runConcurrently(Importer importer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<RowResult>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                // Every thread sees the same IDs in a different order, so inserts contend on overlapping keys
+                List<DealParser.RowData> rows = rows(new Random(t));
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return importer.apply(rows);
+                }));
             }
-        }));
+            start.countDown();
+
+            List<RowResult> all = new ArrayList<>();
+            for (Future<List<RowResult>> future : futures) {
+                all.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+            return all;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-        latch.await();
-        executor.shutdown();
+    private void assertCleanOutcome(List<RowResult> results) {
+        Map<String, Long> byStatus = results.stream()
+                .collect(Collectors.groupingBy(RowResult::status, Collectors.counting()));
+
+        assertThat(byStatus).doesNotContainKey("FAILURE");
+        assertThat(byStatus.get("SUCCESS")).isEqualTo((long) IDS);
+        assertThat(byStatus.get("DUPLICATE")).isEqualTo((long) IDS * (THREADS - 1));
+        assertThat(results.stream().filter(r -> r.status().equals("DUPLICATE")))
+                .allMatch(r -> r.message().equals("Deal already exists in DB"));
+        assertThat(repository.count()).isEqualTo(IDS);
+    }
+
+    private static List<DealParser.RowData> rows(Random random) {
+        List<DealParser.RowData> rows = IntStream.range(0, IDS).mapToObj(i -> {
+            DealRequest req = new DealRequest();
+            req.setDealId("C" + i);
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr("100.00");
+            return new DealParser.RowData(i + 2, req);
+        }).collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(rows, random);
+        return rows;
+    }
+
+    private static MockMultipartFile csv(List<DealParser.RowData> rows) {
+        StringBuilder csv = new StringBuilder("dealId,fromCurrency,toCurrency,timestamp,amount\n");
+        for (DealParser.RowData row : rows) {
+            DealRequest req = row.request();
+            csv.append(req.getDealId()).append(',').append(req.getFromCurrency()).append(',')
+                    .append(req.getToCurrency()).append(',').append(req.getTimestamp()).append(',')
+                    .append(req.getAmountStr()).append('\n');
+        }
+        return new MockMultipartFile("file", "deals.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
 
-        Assertions.assertEquals(2, repository.count(), "DB should have only 2 unique deals");
+    @FunctionalInterface
+    private interface Importer {
+        List<RowResult> apply(List<DealParser.RowData> rows) throws Exception;
     }
 }
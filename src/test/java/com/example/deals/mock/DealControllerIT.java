@@ -1,32 +1,48 @@
 package com.example.deals.mock;
 
+import com.example.deals.config.ImportProperties;
 import com.example.deals.controller.DealController;
+import com.example.deals.dto.DealPage;
 import com.example.deals.dto.DealResponse;
 import com.example.deals.exception.DealPersistenceException;
 import com.example.deals.parser.DealParser;
 import com.example.deals.result.RowResult;
 import com.example.deals.service.DealImportService;
+import com.example.deals.service.ImportJobService;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DealController.class)
+@Import({ImportScheduler.class, ImportMetrics.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties(ImportProperties.class)
 class DealControllerIT {
 
     @Autowired
@@ -38,6 +54,9 @@ class DealControllerIT {
     @MockBean
     private DealImportService importService;
 
+    @MockBean
+    private ImportJobService jobService;
+
     @Test
     void importDeals_success() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
@@ -48,8 +67,8 @@ class DealControllerIT {
                         .getBytes(StandardCharsets.UTF_8)
         );
 
-        when(parser.parse(any(InputStreamReader.class))).thenReturn(List.of());
-        when(importService.importRows(any())).thenReturn(
+        when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+        when(importService.importRows(any(), anyLong(), anyBoolean())).thenReturn(
                 List.of(RowResult.success("D1"))
         );
 
@@ -58,6 +77,68 @@ class DealControllerIT {
                 .andExpect(jsonPath("$.results").isArray());
     }
 
+    @Test
+    void importDeals_ndjson_streamsResultsThenSummary() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "data".getBytes());
+
+        when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+        doAnswer(inv -> {
+            Consumer<RowResult> sink = inv.getArgument(3);
+            sink.accept(RowResult.success("D1"));
+            sink.accept(RowResult.failure("D2", "Amount is required"));
+            return null;
+        }).when(importService).importRows(any(), anyLong(), anyBoolean(), any());
+
+        MvcResult result = mockMvc.perform(multipart("/api/v1/deals/import").file(file)
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("""
+                        {"dealId":"D1","status":"SUCCESS","message":null}
+                        {"dealId":"D2","status":"FAILURE","message":"Amount is required"}
+                        {"summary":{"total":2,"successes":1,"duplicates":0,"failures":1}}
+                        """));
+    }
+
+    @Test
+    void importDeals_summaryMode_returnsTotalsAndFailureDigest() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "data".getBytes());
+
+        when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+        doAnswer(inv -> {
+            Consumer<RowResult> sink = inv.getArgument(3);
+            sink.accept(RowResult.success("D1"));
+            sink.accept(RowResult.failure("D2", "Amount is required"));
+            return null;
+        }).when(importService).importRows(any(), anyLong(), anyBoolean(), any());
+
+        mockMvc.perform(multipart("/api/v1/deals/import").file(file).param("mode", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary.total").value(2))
+                .andExpect(jsonPath("$.summary.failures").value(1))
+                .andExpect(jsonPath("$.failures[0].message").value("Amount is required"))
+                .andExpect(jsonPath("$.failures[0].samples[0].dealId").value("D2"))
+                .andExpect(jsonPath("$.results").doesNotExist());
+    }
+
+    @Test
+    void importDeals_ndjson_nonCsv_returnsJson400() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "badfile.txt", "text/plain", "data".getBytes());
+
+        MvcResult result = mockMvc.perform(multipart("/api/v1/deals/import").file(file).accept("application/x-ndjson"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Only CSV files are allowed"));
+    }
+
     @Test
     void importDeals_nonCsv_returns400() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
@@ -90,8 +171,8 @@ class DealControllerIT {
                 "data".getBytes()
         );
 
-        when(parser.parse(any())).thenReturn(Collections.emptyList());
-        when(importService.importRows(any())).thenThrow(new DealPersistenceException("DB error"));
+        when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+        when(importService.importRows(any(), anyLong(), anyBoolean())).thenThrow(new DealPersistenceException("DB error"));
 
         mockMvc.perform(multipart("/api/v1/deals/import").file(file))
                 .andExpect(status().isInternalServerError())
@@ -107,24 +188,44 @@ class DealControllerIT {
 
     @Test
     void getAllDeals_returnsList() throws Exception {
-        when(importService.getAllDealsDto()).thenReturn(
-                List.of(new DealResponse("ID1", "USD", "EUR","2025-11-15T12:00:00", BigDecimal.valueOf(200)))
-        );
+        doAnswer(inv -> {
+            Consumer<DealResponse> sink = inv.getArgument(0);
+            sink.accept(new DealResponse("ID1", "USD", "EUR", "2025-11-15T12:00:00", BigDecimal.valueOf(200)));
+            return null;
+        }).when(importService).exportDeals(any());
 
-        mockMvc.perform(get("/api/v1/deals"))
+        MvcResult result = mockMvc.perform(get("/api/v1/deals"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].dealId").value("ID1"));
     }
 
     @Test
     void getAllDeals_empty_returns200() throws Exception {
-        when(importService.getAllDealsDto()).thenReturn(Collections.emptyList());
+        MvcResult result = mockMvc.perform(get("/api/v1/deals"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/api/v1/deals"))
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void getDealsPage_returnsDealsAndNextCursor() throws Exception {
+        when(importService.getDealsPage(100L, 2)).thenReturn(new DealPage(
+                List.of(new DealResponse("ID1", "USD", "EUR", "2025-11-15T12:00:00", BigDecimal.valueOf(200))),
+                "101"));
+
+        mockMvc.perform(get("/api/v1/deals").param("limit", "2").param("cursor", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealId").value("ID1"))
+                .andExpect(jsonPath("$.nextCursor").value("101"));
+    }
+
     @Test
     void getDealById_found() throws Exception {
         when(importService.getDealByIdDto("D1")).thenReturn(
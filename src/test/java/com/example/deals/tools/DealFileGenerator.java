@@ -0,0 +1,540 @@
+package com.example.deals.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes synthetic deal uploads of any size for scale tests. The output depends only on the seed, the mix and the
+ * row count, so the same arguments always give the same file, and a shorter file is a prefix of a longer one.
+ *
+ * <p>The kind of each row is a pure function of the seed and the row number, and the values of a row only depend
+ * on the block of rows it falls in. Blocks are therefore formatted on several threads, straight into byte arrays
+ * without per-row objects, and written in order, so large files are written about as fast as the disk allows.
+ *
+ * <p>New deals get the id {@code D<row>} and pre-existing ones {@code E<row>}; {@link #writeExisting} writes valid
+ * rows for those {@code E} ids, which must be imported first for the rows to come back as DB duplicates.
+ *
+ * <pre>
+ * java -cp target/test-classes com.example.deals.tools.DealFileGenerator --rows=10000000 --out=fixtures/generated.csv
+ * </pre>
+ */
+public final class DealFileGenerator {
+
+    public static final String HEADER = "dealUniqueId,fromCurrency,toCurrency,timestamp,amount\n";
+
+    /**
+     * What each generated row is meant to exercise, and the import status it should get.
+     */
+    public enum RowKind {
+        /** A new, valid deal: SUCCESS. */
+        VALID,
+        /** FAILURE on fromCurrency or toCurrency. */
+        INVALID_CURRENCY,
+        /** FAILURE: unparseable timestamp. */
+        BAD_TIMESTAMP,
+        /** FAILURE: timestamp after now. */
+        FUTURE_DATE,
+        /** FAILURE: zero or negative amount. */
+        NON_POSITIVE_AMOUNT,
+        /** DUPLICATE: repeats the id of an earlier new deal in the same file. */
+        DUPLICATE,
+        /** DUPLICATE once the existing-ids file has been imported: an {@code E} id from that file. */
+        EXISTING
+    }
+
+    /**
+     * Percentage of rows of each kind; whatever is left over is {@link RowKind#VALID}.
+     */
+    public record Mix(double invalidCurrency, double badTimestamp, double futureDate, double nonPositiveAmount,
+                      double duplicate, double existing) {
+
+        public static final Mix CLEAN = new Mix(0, 0, 0, 0, 0, 0);
+
+        /**
+         * Roughly what partner files look like.
+         */
+        public static final Mix TYPICAL = new Mix(1, 1, 0.5, 1, 2, 5);
+
+        public Mix {
+            double total = 0;
+            for (double p : new double[]{invalidCurrency, badTimestamp, futureDate, nonPositiveAmount, duplicate, existing}) {
+                if (p < 0) {
+                    throw new IllegalArgumentException("Percentages must not be negative");
+                }
+                total += p;
+            }
+            if (total > 100) {
+                throw new IllegalArgumentException("Percentages add up to more than 100: " + total);
+            }
+        }
+    }
+
+    /**
+     * Rows written per kind, and the total size including the header.
+     */
+    public record Stats(long rows, long bytes, Map<RowKind, Long> counts) {
+
+        public long count(RowKind kind) {
+            return counts.getOrDefault(kind, 0L);
+        }
+    }
+
+    private record Block(byte[] bytes, int length, long[] counts) {}
+
+    // Kinds are drawn in basis points so fractional percentages stay exact
+    private static final int SCALE = 10_000;
+
+    private static final int ROWS_PER_BLOCK = 1 << 16;
+
+    // Longest possible row: 20-digit id, four-letter currency, longest bad timestamp, negative 999999.99
+    private static final int MAX_ROW_BYTES = 128;
+
+    // Tries at picking an earlier new deal for a DUPLICATE row before scanning back for one
+    private static final int DUPLICATE_TRIES = 64;
+
+    private static final RowKind[] KINDS = RowKind.values();
+
+    private static final long VALID_FROM = 1_577_836_800L;  // 2020-01-01T00:00:00Z
+    private static final long VALID_TO = 1_735_689_600L;    // 2025-01-01T00:00:00Z
+    private static final long FUTURE_FROM = 4_070_908_800L; // 2099-01-01T00:00:00Z
+    private static final long SECONDS_PER_YEAR = 31_536_000L;
+
+    private static final long MAX_CENTS = 100_000_000L;
+
+    private static final byte[][] CURRENCIES = ascii("USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "NZD", "SEK", "NOK");
+    private static final byte[][] BAD_CURRENCIES = ascii("usd", "US", "EURO", "X1Z");
+    private static final byte[][] BAD_TIMESTAMPS = ascii(
+            "2025-13-01T10:00:00Z", "01/02/2024 10:00", "2024-02-30T25:61:00Z", "yesterday");
+    private static final byte[][] NON_POSITIVE_AMOUNTS = ascii("0", "0.00", "-");
+
+    private final long seed;
+    private final int[] thresholds;
+
+    public DealFileGenerator(long seed, Mix mix) {
+        this.seed = seed;
+        double[] percents = {mix.invalidCurrency(), mix.badTimestamp(), mix.futureDate(), mix.nonPositiveAmount(),
+                mix.duplicate(), mix.existing()};
+        this.thresholds = new int[percents.length];
+        int cumulative = 0;
+        for (int i = 0; i < percents.length; i++) {
+            cumulative += (int) Math.round(percents[i] * (SCALE / 100));
+            thresholds[i] = cumulative;
+        }
+    }
+
+    /**
+     * Writes the header and {@code rows} records to {@code out}, which is not closed, using every available core.
+     */
+    public Stats write(long rows, OutputStream out) throws IOException {
+        return write(rows, out, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Writes the header and {@code rows} records to {@code out}, formatting up to {@code threads} blocks at once.
+     * The output does not depend on {@code threads}.
+     */
+    public Stats write(long rows, OutputStream out, int threads) throws IOException {
+        byte[] header = HEADER.getBytes(StandardCharsets.US_ASCII);
+        out.write(header);
+        long bytes = header.length;
+        long[] counts = new long[KINDS.length];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "deal-file-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<Block>> inFlight = new ArrayDeque<>();
+            long nextRow = 0;
+            while (nextRow < rows || !inFlight.isEmpty()) {
+                while (inFlight.size() < threads * 2 && nextRow < rows) {
+                    long firstRow = nextRow;
+                    int count = (int) Math.min(ROWS_PER_BLOCK, rows - firstRow);
+                    inFlight.add(pool.submit(() -> block(firstRow, count)));
+                    nextRow += count;
+                }
+
+                Block block = join(inFlight.poll());
+                out.write(block.bytes(), 0, block.length());
+                bytes += block.length();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += block.counts()[i];
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<RowKind, Long> byKind = new EnumMap<>(RowKind.class);
+        for (RowKind kind : KINDS) {
+            byKind.put(kind, counts[kind.ordinal()]);
+        }
+        return new Stats(rows, bytes, byKind);
+    }
+
+    /**
+     * Writes a valid row for each {@code E} id among the first {@code rows} rows of the file from {@link #write},
+     * in the same order.
+     */
+    public Stats writeExisting(long rows, OutputStream out) throws IOException {
+        SplittableRandom random = new SplittableRandom(~seed);
+        Buffer buf = new Buffer(1 << 20);
+        buf.put(HEADER.getBytes(StandardCharsets.US_ASCII));
+        long bytes = 0;
+        long count = 0;
+        for (long row = 0; row < rows; row++) {
+            if (kind(row) != RowKind.EXISTING) {
+                continue;
+            }
+            if (buf.remaining() < MAX_ROW_BYTES) {
+                bytes += buf.drainTo(out);
+            }
+            buf.put('E').putLong(row).put(',')
+                    .put(pick(random, CURRENCIES)).put(',').put(pick(random, CURRENCIES)).put(',')
+                    .putTimestamp(random.nextLong(VALID_FROM, VALID_TO)).put(',')
+                    .putCents(1 + random.nextLong(MAX_CENTS)).put('\n');
+            count++;
+        }
+        bytes += buf.drainTo(out);
+        return new Stats(count, bytes, Map.of(RowKind.VALID, count));
+    }
+
+    /**
+     * The file from {@link #write} in memory, for benchmarks and tests.
+     */
+    public byte[] generate(int rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 48);
+        try {
+            write(rows, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private Block block(long firstRow, int count) {
+        SplittableRandom random = new SplittableRandom(mix64(seed ^ mix64(firstRow / ROWS_PER_BLOCK)));
+        Buffer buf = new Buffer(count * MAX_ROW_BYTES);
+        long[] counts = new long[KINDS.length];
+
+        for (long row = firstRow; row < firstRow + count; row++) {
+            RowKind kind = kind(row);
+            counts[kind.ordinal()]++;
+            switch (kind) {
+                case DUPLICATE -> buf.put('D').putLong(earlierNewDeal(row, random));
+                case EXISTING -> buf.put('E').putLong(row);
+                default -> buf.put('D').putLong(row);
+            }
+            writeFields(kind, random, buf);
+        }
+        return new Block(buf.bytes, buf.pos, counts);
+    }
+
+    /**
+     * Kind of row {@code row}, from a hash of the seed and row number alone. A DUPLICATE with no new deal before
+     * it to repeat becomes VALID.
+     */
+    private RowKind kind(long row) {
+        RowKind kind = drawnKind(row);
+        if (kind == RowKind.DUPLICATE && newDealBefore(row) < 0) {
+            return RowKind.VALID;
+        }
+        return kind;
+    }
+
+    private RowKind drawnKind(long row) {
+        int draw = (int) ((mix64(seed + row * 0x9E3779B97F4A7C15L) >>> 1) % SCALE);
+        for (int i = 0; i < thresholds.length; i++) {
+            if (draw < thresholds[i]) {
+                return KINDS[i + 1];
+            }
+        }
+        return RowKind.VALID;
+    }
+
+    private static boolean isNewDeal(RowKind kind) {
+        return kind != RowKind.DUPLICATE && kind != RowKind.EXISTING;
+    }
+
+    /**
+     * A random earlier row holding a new deal; {@link #kind} guarantees one exists.
+     */
+    private long earlierNewDeal(long row, SplittableRandom random) {
+        for (int i = 0; i < DUPLICATE_TRIES; i++) {
+            long candidate = random.nextLong(row);
+            if (isNewDeal(drawnKind(candidate))) {
+                return candidate;
+            }
+        }
+        return newDealBefore(row);
+    }
+
+    private long newDealBefore(long row) {
+        for (long candidate = row - 1; candidate >= 0; candidate--) {
+            if (isNewDeal(drawnKind(candidate))) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeFields(RowKind kind, SplittableRandom random, Buffer buf) {
+        buf.put(',');
+
+        if (kind == RowKind.INVALID_CURRENCY && random.nextBoolean()) {
+            buf.put(pick(random, BAD_CURRENCIES)).put(',').put(pick(random, CURRENCIES));
+        } else if (kind == RowKind.INVALID_CURRENCY) {
+            buf.put(pick(random, CURRENCIES)).put(',').put(pick(random, BAD_CURRENCIES));
+        } else {
+            buf.put(pick(random, CURRENCIES)).put(',').put(pick(random, CURRENCIES));
+        }
+        buf.put(',');
+
+        switch (kind) {
+            case BAD_TIMESTAMP -> buf.put(pick(random, BAD_TIMESTAMPS));
+            case FUTURE_DATE -> buf.putTimestamp(FUTURE_FROM + random.nextLong(SECONDS_PER_YEAR));
+            default -> buf.putTimestamp(random.nextLong(VALID_FROM, VALID_TO));
+        }
+        buf.put(',');
+
+        if (kind == RowKind.NON_POSITIVE_AMOUNT) {
+            byte[] amount = pick(random, NON_POSITIVE_AMOUNTS);
+            buf.put(amount);
+            if (amount.length == 1 && amount[0] == '-') {
+                buf.putCents(1 + random.nextLong(MAX_CENTS));
+            }
+        } else {
+            buf.putCents(1 + random.nextLong(MAX_CENTS));
+        }
+        buf.put('\n');
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Block join(Future<Block> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Generating a block failed", e.getCause());
+        }
+    }
+
+    private static byte[] pick(SplittableRandom random, byte[][] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static byte[][] ascii(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    /**
+     * Usage: {@code --rows=N [--seed=S] [--mix=typical|clean] [--invalid-currency=P] [--bad-timestamp=P]
+     * [--future-date=P] [--non-positive-amount=P] [--duplicate=P] [--existing=P] [--threads=T] --out=FILE
+     * [--existing-out=FILE]}, where each {@code P} is a percentage overriding the chosen mix.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        long rows = Long.parseLong(required(options, "rows"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        Mix base = "clean".equals(options.getOrDefault("mix", "typical")) ? Mix.CLEAN : Mix.TYPICAL;
+        Mix mix = new Mix(
+                percent(options, "invalid-currency", base.invalidCurrency()),
+                percent(options, "bad-timestamp", base.badTimestamp()),
+                percent(options, "future-date", base.futureDate()),
+                percent(options, "non-positive-amount", base.nonPositiveAmount()),
+                percent(options, "duplicate", base.duplicate()),
+                percent(options, "existing", base.existing()));
+        DealFileGenerator generator = new DealFileGenerator(seed, mix);
+
+        Path out = Path.of(required(options, "out"));
+        long started = System.nanoTime();
+        Stats stats;
+        try (OutputStream os = Files.newOutputStream(out)) {
+            stats = generator.write(rows, os, threads);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Wrote %d rows (%,d bytes) to %s in %.1f s, %.0f MB/s%n",
+                stats.rows(), stats.bytes(), out, seconds, stats.bytes() / 1e6 / seconds);
+        stats.counts().forEach((kind, count) -> System.out.printf("  %-20s %d%n", kind, count));
+
+        String existingOut = options.get("existing-out");
+        if (existingOut != null) {
+            try (OutputStream os = Files.newOutputStream(Path.of(existingOut))) {
+                Stats existing = generator.writeExisting(rows, os);
+                System.out.printf("Wrote %d pre-existing rows to %s%n", existing.rows(), existingOut);
+            }
+        }
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    private static double percent(Map<String, String> options, String name, double fallback) {
+        String value = options.get(name);
+        return value == null ? fallback : Double.parseDouble(value);
+    }
+
+    /**
+     * Fixed-size byte buffer with ASCII formatting for the few value shapes a deal row needs. Callers make sure a
+     * whole row fits before writing it, so the individual puts do no bounds checks of their own.
+     */
+    private static final class Buffer {
+
+        private static final byte[] DIGIT_PAIRS = new byte[200];
+
+        static {
+            for (int i = 0; i < 100; i++) {
+                DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+                DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+            }
+        }
+
+        private final byte[] bytes;
+        private int pos;
+
+        Buffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        int remaining() {
+            return bytes.length - pos;
+        }
+
+        /**
+         * Writes out and empties the buffer, returning the number of bytes written.
+         */
+        int drainTo(OutputStream out) throws IOException {
+            int n = pos;
+            out.write(bytes, 0, n);
+            pos = 0;
+            return n;
+        }
+
+        Buffer put(char c) {
+            bytes[pos++] = (byte) c;
+            return this;
+        }
+
+        Buffer put(byte[] value) {
+            System.arraycopy(value, 0, bytes, pos, value.length);
+            pos += value.length;
+            return this;
+        }
+
+        Buffer putLong(long value) {
+            int digits = 1;
+            for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+                digits++;
+            }
+            int end = pos + digits;
+            int i = end;
+            while (value >= 100) {
+                int pair = (int) (value % 100);
+                value /= 100;
+                bytes[--i] = DIGIT_PAIRS[2 * pair + 1];
+                bytes[--i] = DIGIT_PAIRS[2 * pair];
+            }
+            if (value >= 10) {
+                bytes[--i] = DIGIT_PAIRS[2 * (int) value + 1];
+                bytes[--i] = DIGIT_PAIRS[2 * (int) value];
+            } else {
+                bytes[--i] = (byte) ('0' + value);
+            }
+            pos = end;
+            return this;
+        }
+
+        /**
+         * {@code cents} as a decimal with two fraction digits, e.g. {@code 1234.05}.
+         */
+        Buffer putCents(long cents) {
+            putLong(cents / 100);
+            bytes[pos++] = '.';
+            put2((int) (cents % 100));
+            return this;
+        }
+
+        /**
+         * {@code epochSecond} formatted exactly as {@link java.time.Instant#toString()} does for whole seconds
+         * between years 1000 and 9999.
+         */
+        Buffer putTimestamp(long epochSecond) {
+            long epochDay = Math.floorDiv(epochSecond, 86_400L);
+            int secondOfDay = (int) (epochSecond - epochDay * 86_400L);
+
+            // Civil date from day count, see https://howardhinnant.github.io/date_algorithms.html#civil_from_days
+            long z = epochDay + 719_468;
+            long era = Math.floorDiv(z, 146_097);
+            int doe = (int) (z - era * 146_097);
+            int yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+            int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            int mp = (5 * doy + 2) / 153;
+            int day = doy - (153 * mp + 2) / 5 + 1;
+            int month = mp < 10 ? mp + 3 : mp - 9;
+            int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+            put2(year / 100);
+            put2(year % 100);
+            bytes[pos++] = '-';
+            put2(month);
+            bytes[pos++] = '-';
+            put2(day);
+            bytes[pos++] = 'T';
+            put2(secondOfDay / 3_600);
+            bytes[pos++] = ':';
+            put2(secondOfDay / 60 % 60);
+            bytes[pos++] = ':';
+            put2(secondOfDay % 60);
+            bytes[pos++] = 'Z';
+            return this;
+        }
+
+        private void put2(int value) {
+            bytes[pos++] = DIGIT_PAIRS[2 * value];
+            bytes[pos++] = DIGIT_PAIRS[2 * value + 1];
+        }
+    }
+}
@@ -1,19 +1,40 @@
 package com.example.deals.unit;
 
+import com.example.deals.config.ImportProperties;
 import com.example.deals.controller.DealController;
+import com.example.deals.dto.DealPage;
 import com.example.deals.dto.DealResponse;
+import com.example.deals.dto.ImportJobResponse;
+import com.example.deals.dto.RowResultPage;
 import com.example.deals.exception.DealPersistenceException;
+import com.example.deals.job.ImportJob;
 import com.example.deals.parser.DealParser;
 import com.example.deals.service.DealImportService;
+import com.example.deals.service.ImportJobService;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportScheduler;
+import com.example.deals.result.FailureDigest;
+import com.example.deals.result.ImportSummary;
 import com.example.deals.result.RowResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -22,7 +43,9 @@ class DealControllerTest {
 
     private final DealParser parser = mock(DealParser.class);
     private final DealImportService service = mock(DealImportService.class);
-    private final DealController controller = new DealController(parser, service);
+    private final ImportJobService jobService = mock(ImportJobService.class);
+    private final DealController controller = new DealController(parser, service, jobService,
+            new ImportScheduler(new ImportProperties(), new ImportMetrics(new SimpleMeterRegistry())), new ObjectMapper());
 
     @Nested
     class ImportDealsTests {
@@ -32,10 +55,10 @@ class DealControllerTest {
             MockMultipartFile file = new MockMultipartFile("file", "deals.csv",
                     "text/csv", "content".getBytes());
 
-            when(parser.parse(any())).thenReturn(List.of());
-            when(service.importRows(any())).thenReturn(List.of(RowResult.success("D1")));
+            when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+            when(service.importRows(any(), anyLong(), anyBoolean())).thenReturn(List.of(RowResult.success("D1")));
 
-            ResponseEntity<?> resp = controller.importDeals(file);
+            ResponseEntity<?> resp = controller.importDeals(file, false);
 
             assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
             Map<String, Object> body = (Map<String, Object>) resp.getBody();
@@ -44,14 +67,14 @@ class DealControllerTest {
 
         @Test
         void nullFile_returnsBadRequest() {
-            ResponseEntity<?> resp = controller.importDeals(null);
+            ResponseEntity<?> resp = controller.importDeals(null, false);
             assertThat(resp.getStatusCodeValue()).isEqualTo(400);
         }
 
         @Test
         void emptyFile_returnsBadRequest() {
             MockMultipartFile file = new MockMultipartFile("file", "empty.csv", "text/csv", new byte[0]);
-            ResponseEntity<?> resp = controller.importDeals(file);
+            ResponseEntity<?> resp = controller.importDeals(file, false);
             assertThat(resp.getStatusCodeValue()).isEqualTo(400);
         }
 
@@ -64,9 +87,9 @@ class DealControllerTest {
                     "id,from,to,timestamp,amount\n1,USD,EUR,2025-01-01T00:00:00,100".getBytes()
             );
 
-            when(service.importRows(any())).thenThrow(new DealPersistenceException("DB error"));
+            when(service.importRows(any(), anyLong(), anyBoolean())).thenThrow(new DealPersistenceException("DB error"));
 
-            ResponseEntity<?> resp = controller.importDeals(file);
+            ResponseEntity<?> resp = controller.importDeals(file, false);
             assertThat(resp.getStatusCodeValue()).isEqualTo(500);
         }
 
@@ -79,12 +102,163 @@ class DealControllerTest {
                     "data".getBytes()
             );
 
-            ResponseEntity<?> resp = controller.importDeals(file);
+            ResponseEntity<?> resp = controller.importDeals(file, false);
 
             assertThat(resp.getStatusCodeValue()).isEqualTo(400);
             Map<?, ?> body = (Map<?, ?>) resp.getBody();
             assertThat(body.get("error")).isEqualTo("Only CSV files are allowed");
         }
+
+        @Test
+        void ndjson_writesOneLinePerRowThenSummary() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "content".getBytes());
+            when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+            doAnswer(inv -> {
+                Consumer<RowResult> sink = inv.getArgument(3);
+                sink.accept(RowResult.success("D1"));
+                sink.accept(RowResult.duplicate("D1", "Duplicate deal"));
+                return null;
+            }).when(service).importRows(any(), anyLong(), anyBoolean(), any());
+
+            String[] lines = export(controller.importDealsNdjson(file, false)).split("\n");
+
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).contains("\"dealId\":\"D1\"", "\"status\":\"SUCCESS\"");
+            assertThat(lines[1]).contains("\"status\":\"DUPLICATE\"");
+            assertThat(lines[2]).isEqualTo("{\"summary\":{\"total\":2,\"successes\":1,\"duplicates\":1,\"failures\":0}}");
+        }
+
+        @Test
+        void ndjson_importFails_endsWithErrorLine() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "content".getBytes());
+            when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+            doAnswer(inv -> {
+                Consumer<RowResult> sink = inv.getArgument(3);
+                sink.accept(RowResult.success("D1"));
+                throw new DealPersistenceException("DB error");
+            }).when(service).importRows(any(), anyLong(), anyBoolean(), any());
+
+            String[] lines = export(controller.importDealsNdjson(file, false)).split("\n");
+
+            assertThat(lines).hasSize(2);
+            assertThat(lines[1]).contains("\"error\":\"Persistence failed: DB error\"", "\"successes\":1");
+        }
+
+        @Test
+        void summary_returnsTotalsAndGroupedFailures() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "content".getBytes());
+            when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+            doAnswer(inv -> {
+                Consumer<RowResult> sink = inv.getArgument(3);
+                sink.accept(RowResult.success("D1"));
+                sink.accept(RowResult.failure("D2", "Amount is required"));
+                sink.accept(RowResult.failure("D3", "Amount is required"));
+                return null;
+            }).when(service).importRows(any(), anyLong(), anyBoolean(), any());
+
+            ResponseEntity<?> resp = controller.importDealsSummary(file, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(200);
+            Map<?, ?> body = (Map<?, ?>) resp.getBody();
+            assertThat(body.get("summary")).isEqualTo(new ImportSummary(3, 1, 0, 2));
+            assertThat(body.get("failures")).isEqualTo(List.of(
+                    new FailureDigest.Group("Amount is required", 2, List.of(
+                            new FailureDigest.Sample("D2", null), new FailureDigest.Sample("D3", null)))));
+            assertThat(body.get("ungroupedFailures")).isEqualTo(0L);
+            verify(service, never()).importRows(any(), anyLong(), anyBoolean());
+        }
+
+        @Test
+        void summary_serviceThrows_returnsInternalServerError() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "deals.csv", "text/csv", "content".getBytes());
+            when(parser.stream(any(InputStream.class))).thenReturn(Stream.empty());
+            doThrow(new DealPersistenceException("DB error"))
+                    .when(service).importRows(any(), anyLong(), anyBoolean(), any());
+
+            ResponseEntity<?> resp = controller.importDealsSummary(file, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(500);
+        }
+
+        @Test
+        void ndjson_nonCsvFile_returnsBadRequest() throws Exception {
+            MockMultipartFile file = new MockMultipartFile("file", "notcsv.txt", "text/plain", "data".getBytes());
+
+            ResponseEntity<StreamingResponseBody> resp = controller.importDealsNdjson(file, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(400);
+            assertThat(export(resp)).isEqualTo("{\"error\":\"Only CSV files are allowed\"}");
+            verifyNoInteractions(service);
+        }
+    }
+
+    @Nested
+    class ImportJobTests {
+
+        private final MockMultipartFile file = new MockMultipartFile("file", "deals.csv",
+                "text/csv", "content".getBytes());
+
+        @Test
+        void submit_returnsAcceptedWithLocation() throws Exception {
+            when(jobService.submit(file, false)).thenReturn(new ImportJob("job-1", "deals.csv", 7));
+
+            ResponseEntity<?> resp = controller.submitImportJob(file, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(202);
+            assertThat(resp.getHeaders().getLocation()).hasToString("/api/v1/deals/import/jobs/job-1");
+            assertThat(((ImportJobResponse) resp.getBody()).status()).isEqualTo("QUEUED");
+        }
+
+        @Test
+        void submit_queueFull_returnsTooManyRequests() throws Exception {
+            when(jobService.submit(file, false)).thenThrow(new RejectedExecutionException());
+
+            ResponseEntity<?> resp = controller.submitImportJob(file, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(429);
+            assertThat(resp.getHeaders().getFirst("Retry-After")).isEqualTo("5");
+        }
+
+        @Test
+        void submit_nonCsv_returnsBadRequest() {
+            MockMultipartFile txt = new MockMultipartFile("file", "notcsv.txt", "text/plain", "data".getBytes());
+
+            ResponseEntity<?> resp = controller.submitImportJob(txt, false);
+
+            assertThat(resp.getStatusCodeValue()).isEqualTo(400);
+            verifyNoInteractions(jobService);
+        }
+
+        @Test
+        void getJob_unknown_returns404() {
+            when(jobService.find("nope")).thenReturn(Optional.empty());
+
+            assertThat(controller.getImportJob("nope").getStatusCodeValue()).isEqualTo(404);
+        }
+
+        @Test
+        void getResults_returnsRequestedPage() {
+            ImportJob job = new ImportJob("job-1", "deals.csv", 7);
+            job.markRunning();
+            job.record(RowResult.success("D1"));
+            job.record(RowResult.duplicate("D2", "Deal already exists in DB"));
+            job.record(RowResult.failure("D3", "Amount is required"));
+            job.markCompleted();
+            when(jobService.find("job-1")).thenReturn(Optional.of(job));
+
+            ResponseEntity<?> resp = controller.getImportJobResults("job-1", 1, 2);
+
+            RowResultPage page = (RowResultPage) resp.getBody();
+            assertThat(page.totalElements()).isEqualTo(3);
+            assertThat(page.complete()).isTrue();
+            assertThat(page.results()).containsExactly(RowResult.failure("D3", "Amount is required"));
+        }
+
+        @Test
+        void getResults_invalidPaging_returnsBadRequest() {
+            assertThat(controller.getImportJobResults("job-1", -1, 10).getStatusCodeValue()).isEqualTo(400);
+            assertThat(controller.getImportJobResults("job-1", 0, 0).getStatusCodeValue()).isEqualTo(400);
+        }
     }
 
     @Nested
@@ -99,15 +273,59 @@ class DealControllerTest {
         }
     }
 
+    private static String export(ResponseEntity<StreamingResponseBody> resp) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
     @Nested
     class GetDealsTests {
 
         @Test
-        void getAllDeals_emptyList_returns200() {
-            when(service.getAllDealsDto()).thenReturn(List.of());
-            ResponseEntity<List<DealResponse>> resp = controller.getAllDeals();
+        void getAllDeals_emptyList_returns200() throws Exception {
+            ResponseEntity<StreamingResponseBody> resp = controller.getAllDeals();
+            assertThat(resp.getStatusCodeValue()).isEqualTo(200);
+            assertThat(export(resp)).isEqualTo("[]");
+        }
+
+        @Test
+        void getAllDeals_streamsEveryExportedDeal() throws Exception {
+            doAnswer(inv -> {
+                Consumer<DealResponse> sink = inv.getArgument(0);
+                sink.accept(new DealResponse("D1", "USD", "EUR", "2025-01-01T10:00:00Z", new BigDecimal("10.50")));
+                sink.accept(new DealResponse("D2", "GBP", "USD", "2025-01-02T10:00:00Z", BigDecimal.ONE));
+                return null;
+            }).when(service).exportDeals(any());
+
+            String json = export(controller.getAllDeals());
+
+            assertThat(json).startsWith("[{\"dealId\":\"D1\"").contains("\"amount\":10.50").endsWith("\"dealId\":\"D2\",\"fromCurrency\":\"GBP\",\"toCurrency\":\"USD\",\"timestamp\":\"2025-01-02T10:00:00Z\",\"amount\":1}]");
+        }
+
+        @Test
+        void getDealsPage_returnsPageFromCursor() {
+            DealPage page = new DealPage(List.of(), "42");
+            when(service.getDealsPage(10L, 5)).thenReturn(page);
+
+            ResponseEntity<?> resp = controller.getDealsPage(5, "10");
+
             assertThat(resp.getStatusCodeValue()).isEqualTo(200);
-            assertThat(resp.getBody()).isEmpty();
+            assertThat(resp.getBody()).isEqualTo(page);
+        }
+
+        @Test
+        void getDealsPage_firstPageStartsAtZero() {
+            controller.getDealsPage(5, null);
+            verify(service).getDealsPage(0L, 5);
+        }
+
+        @Test
+        void getDealsPage_invalidLimitOrCursor_returns400() {
+            assertThat(controller.getDealsPage(0, null).getStatusCodeValue()).isEqualTo(400);
+            assertThat(controller.getDealsPage(1001, null).getStatusCodeValue()).isEqualTo(400);
+            assertThat(controller.getDealsPage(5, "abc").getStatusCodeValue()).isEqualTo(400);
+            verifyNoInteractions(service);
         }
 
         @Test
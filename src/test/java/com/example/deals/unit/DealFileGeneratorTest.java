@@ -0,0 +1,154 @@
+package com.example.deals.unit;
+
+import com.example.deals.parser.DealParser;
+import com.example.deals.tools.DealFileGenerator;
+import com.example.deals.tools.DealFileGenerator.Mix;
+import com.example.deals.tools.DealFileGenerator.RowKind;
+import com.example.deals.validation.DealValidator;
+import com.example.deals.validation.ValidationOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealFileGeneratorTest {
+
+    private static final Mix MIXED = new Mix(5, 5, 5, 5, 5, 5);
+
+    private final DealValidator validator = new DealValidator();
+
+    @Nested
+    @DisplayName("Determinism")
+    class DeterminismTests {
+
+        @Test
+        @DisplayName("Same seed and mix give the same bytes")
+        void sameSeedSameFile() {
+            assertThat(new DealFileGenerator(7, MIXED).generate(5_000))
+                    .isEqualTo(new DealFileGenerator(7, MIXED).generate(5_000));
+            assertThat(new DealFileGenerator(8, MIXED).generate(5_000))
+                    .isNotEqualTo(new DealFileGenerator(7, MIXED).generate(5_000));
+        }
+
+        @Test
+        @DisplayName("Output does not depend on the number of threads")
+        void threadsDoNotChangeOutput() throws IOException {
+            ByteArrayOutputStream single = new ByteArrayOutputStream();
+            ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+            new DealFileGenerator(7, MIXED).write(200_000, single, 1);
+            new DealFileGenerator(7, MIXED).write(200_000, parallel, 4);
+
+            assertThat(parallel.toByteArray()).isEqualTo(single.toByteArray());
+        }
+
+        @Test
+        @DisplayName("A shorter file is a prefix of a longer one")
+        void shorterIsPrefix() {
+            byte[] shorter = new DealFileGenerator(7, MIXED).generate(100_000);
+            byte[] longer = new DealFileGenerator(7, MIXED).generate(150_000);
+
+            assertThat(Arrays.copyOf(longer, shorter.length)).isEqualTo(shorter);
+        }
+    }
+
+    @Nested
+    @DisplayName("Row Kinds")
+    class RowKindTests {
+
+        @Test
+        @DisplayName("Each kind validates, or repeats an id, the way its name says")
+        void kindsMatchImportOutcome() throws IOException {
+            DealFileGenerator generator = new DealFileGenerator(11, MIXED);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DealFileGenerator.Stats stats = generator.write(20_000, out);
+
+            long valid = 0, currency = 0, timestamp = 0, future = 0, amount = 0, duplicate = 0, existing = 0;
+            Set<String> seen = new HashSet<>();
+            for (DealParser.RowData row : parse(out.toByteArray())) {
+                String dealId = row.request().getDealId();
+                ValidationOutcome outcome = validator.check(row.request());
+                if (!seen.add(dealId)) {
+                    duplicate++;
+                } else if (dealId.startsWith("E")) {
+                    assertThat(outcome.isValid()).isTrue();
+                    existing++;
+                } else if (outcome.isValid()) {
+                    valid++;
+                } else {
+                    assertThat(outcome.errors()).hasSize(1);
+                    String error = outcome.error();
+                    if (error.contains("ISO code")) currency++;
+                    else if (error.startsWith("Invalid timestamp")) timestamp++;
+                    else if (error.contains("future")) future++;
+                    else if (error.contains("positive")) amount++;
+                }
+            }
+
+            assertThat(stats.rows()).isEqualTo(20_000);
+            assertThat(stats.bytes()).isEqualTo(out.size());
+            assertThat(valid).isEqualTo(stats.count(RowKind.VALID));
+            assertThat(currency).isEqualTo(stats.count(RowKind.INVALID_CURRENCY));
+            assertThat(timestamp).isEqualTo(stats.count(RowKind.BAD_TIMESTAMP));
+            assertThat(future).isEqualTo(stats.count(RowKind.FUTURE_DATE));
+            assertThat(amount).isEqualTo(stats.count(RowKind.NON_POSITIVE_AMOUNT));
+            assertThat(duplicate).isEqualTo(stats.count(RowKind.DUPLICATE));
+            assertThat(existing).isEqualTo(stats.count(RowKind.EXISTING));
+            // Roughly 5 % each
+            assertThat(stats.count(RowKind.DUPLICATE)).isBetween(800L, 1_200L);
+        }
+
+        @Test
+        @DisplayName("Clean files are all valid, with timestamps in Instant.toString form")
+        void cleanFile() {
+            List<DealParser.RowData> rows = parse(new DealFileGenerator(3, Mix.CLEAN).generate(10_000));
+
+            assertThat(rows).hasSize(10_000);
+            assertThat(rows).allMatch(row -> validator.check(row.request()).isValid());
+            assertThat(rows).allMatch(row ->
+                    Instant.parse(row.request().getTimestamp()).toString().equals(row.request().getTimestamp()));
+            assertThat(rows.stream().map(row -> row.request().getDealId()).distinct()).hasSize(10_000);
+        }
+
+        @Test
+        @DisplayName("Existing-ids file holds exactly the E ids the main file refers to")
+        void existingFile() throws IOException {
+            DealFileGenerator generator = new DealFileGenerator(5, new Mix(0, 0, 0, 0, 0, 20));
+            DealFileGenerator.Stats stats = generator.write(2_000, OutputStream.nullOutputStream());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DealFileGenerator.Stats existing = generator.writeExisting(2_000, out);
+
+            List<DealParser.RowData> seeded = parse(out.toByteArray());
+            List<String> referenced = parse(generator.generate(2_000)).stream()
+                    .map(row -> row.request().getDealId()).filter(id -> id.startsWith("E")).toList();
+
+            assertThat(existing.rows()).isEqualTo(stats.count(RowKind.EXISTING)).isPositive();
+            assertThat(existing.bytes()).isEqualTo(out.size());
+            assertThat(seeded).allMatch(row -> validator.check(row.request()).isValid());
+            assertThat(seeded.stream().map(row -> row.request().getDealId()).toList())
+                    .containsExactlyElementsOf(referenced);
+        }
+    }
+
+    @Test
+    @DisplayName("Mix rejects percentages over 100 in total")
+    void mixOverHundred() {
+        assertThatThrownBy(() -> new Mix(50, 50, 1, 0, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Mix(-1, 0, 0, 0, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<DealParser.RowData> parse(byte[] csv) {
+        return new DealParser(DealParser.Tokenizer.BYTES).stream(new ByteArrayInputStream(csv)).toList();
+    }
+}
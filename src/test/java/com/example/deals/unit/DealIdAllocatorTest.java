@@ -0,0 +1,41 @@
+package com.example.deals.unit;
+
+import com.example.deals.repository.DealIdAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DealIdAllocator Tests")
+class DealIdAllocatorTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final DealIdAllocator allocator = new DealIdAllocator(jdbc);
+
+    @Test
+    @DisplayName("Uses each sequence value as the low end of a 50-id block and carries the rest over")
+    void pooledLo() {
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(1))).thenReturn(List.of(101L));
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(2))).thenReturn(List.of(151L, 501L));
+
+        assertThat(allocator.allocate(3)).containsExactly(101, 102, 103);
+        assertThat(allocator.allocate(46)).containsExactly(LongStream.rangeClosed(104, 149).toArray());
+        long[] next = allocator.allocate(60);
+
+        assertThat(next).startsWith(150, 151).endsWith(200, 501, 502, 503, 504, 505, 506, 507, 508, 509);
+        assertThat(next).hasSize(60).doesNotHaveDuplicates();
+        verify(jdbc).queryForList(anyString(), eq(Long.class), eq(1));
+        verify(jdbc).queryForList(anyString(), eq(Long.class), eq(2));
+        verifyNoMoreInteractions(jdbc);
+    }
+}
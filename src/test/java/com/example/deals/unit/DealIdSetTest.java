@@ -0,0 +1,77 @@
+package com.example.deals.unit;
+
+import com.example.deals.dedup.DealIdSet;
+import com.example.deals.dedup.HashedDealIdSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealIdSetTest {
+
+    @Nested
+    @DisplayName("Exact Set")
+    class ExactTests {
+
+        @Test
+        @DisplayName("Second add of an id reports it as seen")
+        void addTwice() {
+            DealIdSet ids = DealIdSet.exact();
+
+            assertThat(ids.add("D1")).isTrue();
+            assertThat(ids.add("D2")).isTrue();
+            assertThat(ids.add("D1")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Hashed Set")
+    class HashedTests {
+
+        @Test
+        @DisplayName("Second add of an id reports it as seen")
+        void addTwice() {
+            DealIdSet ids = DealIdSet.hashed(10);
+
+            assertThat(ids.add("D1")).isTrue();
+            assertThat(ids.add("")).isTrue();
+            assertThat(ids.add("D1")).isFalse();
+            assertThat(ids.add("")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Distinct ids are never reported as seen")
+        void noFalseDuplicates() {
+            HashedDealIdSet ids = new HashedDealIdSet(200_000);
+
+            assertThat(IntStream.range(0, 200_000).allMatch(i -> ids.add("DEAL-" + i))).isTrue();
+            assertThat(IntStream.range(0, 200_000).noneMatch(i -> ids.add("DEAL-" + i))).isTrue();
+            assertThat(ids.size()).isEqualTo(200_000);
+        }
+
+        @Test
+        @DisplayName("Footprint is fixed by the expected count, not by id length")
+        void footprintFixedUpFront() {
+            HashedDealIdSet ids = new HashedDealIdSet(1_000);
+            long before = ids.footprintBytes();
+
+            IntStream.range(0, 700).forEach(i -> ids.add("A-VERY-LONG-DEAL-IDENTIFIER-WITH-PADDING-" + i));
+
+            assertThat(ids.footprintBytes()).isEqualTo(before).isEqualTo(2048L * 12);
+        }
+
+        @Test
+        @DisplayName("Grows when the estimate was too low, keeping every id")
+        void growsPastEstimate() {
+            HashedDealIdSet ids = new HashedDealIdSet(4);
+
+            IntStream.range(0, 1_000).forEach(i -> ids.add("D" + i));
+
+            assertThat(ids.size()).isEqualTo(1_000);
+            assertThat(IntStream.range(0, 1_000).noneMatch(i -> ids.add("D" + i))).isTrue();
+        }
+    }
+}
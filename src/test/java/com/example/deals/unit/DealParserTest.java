@@ -1,20 +1,38 @@
 package com.example.deals.unit;
 
+import com.example.deals.config.ImportProperties;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.exception.CsvParseException;
 import com.example.deals.parser.DealParser;
+import com.example.deals.result.FailureDigest;
 import com.example.deals.result.ImportResult;
+import com.example.deals.result.ImportSummary;
 import com.example.deals.result.ParseResult;
 import com.example.deals.result.RowResult;
+import com.example.deals.validation.ValidationOutcome;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 @DisplayName("DealParser Tests")
@@ -100,6 +118,210 @@ class DealParserTest {
         }
     }
 
+    @Nested
+    @DisplayName("Streaming")
+    class Streaming {
+
+        @Test
+        @DisplayName("Streams rows with the same row numbers as parse")
+        void stream_returnsRowsInOrder() {
+            String csv = """
+                    dealUniqueId,fromCurrency,toCurrency,timestamp,amount
+                    D1,USD,EUR,2025-01-01T10:00:00Z,1000
+                    D2,GBP,USD,2025-01-01T11:00:00Z,500
+                    """;
+
+            try (Stream<DealParser.RowData> rows = parser.stream(new StringReader(csv))) {
+                assertThat(rows.map(DealParser.RowData::rowNum)).containsExactly(2, 3);
+            }
+        }
+
+        @Test
+        @DisplayName("Reads no further than the rows consumed")
+        void stream_isLazy() {
+            StringBuilder csv = new StringBuilder("dealUniqueId,fromCurrency,toCurrency,timestamp,amount\n");
+            for (int i = 0; i < 10_000; i++) {
+                csv.append("D").append(i).append(",USD,EUR,2025-01-01T10:00:00Z,1000\n");
+            }
+            int[] charsRead = {0};
+            Reader countingReader = new StringReader(csv.toString()) {
+                @Override
+                public int read(char[] cbuf, int off, int len) throws IOException {
+                    int n = super.read(cbuf, off, len);
+                    charsRead[0] += Math.max(n, 0);
+                    return n;
+                }
+            };
+
+            try (Stream<DealParser.RowData> rows = parser.stream(countingReader)) {
+                Iterator<DealParser.RowData> it = rows.iterator();
+                assertThat(it.next().request().getDealId()).isEqualTo("D0");
+                assertThat(charsRead[0]).isLessThan(csv.length());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Byte tokenizer")
+    class ByteTokenizer {
+
+        private final DealParser byteParser = new DealParser(DealParser.Tokenizer.BYTES);
+
+        private List<String> parseWith(DealParser p, String csv) {
+            try (Stream<DealParser.RowData> rows = p.stream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+                return rows.map(r -> r.rowNum() + "|" + r.request().getDealId() + "|" + r.request().getFromCurrency()
+                        + "|" + r.request().getToCurrency() + "|" + r.request().getTimestamp()
+                        + "|" + r.request().getAmountStr()).toList();
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "h\nD1,USD,EUR,2025-01-01T10:00:00Z,1000\n",
+                "h\r\nD1,USD,EUR,2025-01-01T10:00:00Z,1000\r\nD2,GBP,USD,x,5",
+                "h\rD1,USD\rD2\r\r",
+                "h\n\n  \n,,,\n\t,USD\n",
+                "h\n  D1 , usd ,EUR  ,  t , 1 ,extra,cols\n",
+                "h\n\"D,1\",USD,EUR,t,1\n",
+                "h\n\"multi\nline\",USD,EUR,t,1\nD2,USD,EUR,t,2\n",
+                "h\nD1,\"US\"\"D\",EUR,t,1\n",
+                "h\nD\\1,US\\\"D,EUR,t,1\n",
+                "h\nab\"cd\"ef,USD,EUR,t,1\n",
+                "h,\"quoted\nheader\"\nD1,USD\n",
+                "h\n\u00e9t\u00e9,\u20acUR,EUR,t,1\n\u2003,USD,EUR,t,1\n \u2003x\u2003 ,USD\n",
+                "h\n\u0001,USD\n\u0001D1\u0001,USD\n",
+                "",
+                "h"
+        })
+        @DisplayName("Produces the same rows as OpenCSV")
+        void sameRowsAsOpenCsv(String csv) {
+            assertThat(parseWith(byteParser, csv)).isEqualTo(parseWith(parser, csv));
+        }
+
+        @Test
+        @DisplayName("Handles lines longer than the read buffer")
+        void longLines() {
+            String longId = "D".repeat(200_000);
+            String csv = "h\r" + longId + ",USD,EUR,t,1\r\nD2,USD";
+
+            assertThat(parseWith(byteParser, csv)).isEqualTo(parseWith(parser, csv));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"deals.csv", "large.csv", "sample1.csv", "sample2.csv", "sample_fx_deals.csv"})
+        @DisplayName("Produces the same rows as OpenCSV for the fixtures")
+        void sameRowsForFixtures(String fixture) throws IOException {
+            String csv = Files.readString(Path.of("fixtures", fixture));
+
+            assertThat(parseWith(byteParser, csv)).isEqualTo(parseWith(parser, csv));
+        }
+
+        @Test
+        @DisplayName("Reports an unterminated quote like OpenCSV")
+        void unterminatedQuote_sameError() {
+            String csv = "h\nD1,\"USD,EUR\nD2,USD\n";
+
+            Throwable expected = catchThrowable(() -> parseWith(parser, csv));
+            Throwable actual = catchThrowable(() -> parseWith(byteParser, csv));
+
+            assertThat(expected).isInstanceOf(CsvParseException.class);
+            assertThat(actual).isInstanceOf(CsvParseException.class).hasMessage(expected.getMessage());
+        }
+
+        @Test
+        @DisplayName("Wraps stream errors in CsvParseException")
+        void readError_throwsCsvParseException() {
+            InputStream failing = new InputStream() {
+                @Override
+                public int read() {
+                    throw new RuntimeException("read error");
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    throw new RuntimeException("read error");
+                }
+            };
+
+            assertThatThrownBy(() -> byteParser.stream(failing).toList())
+                    .isInstanceOf(CsvParseException.class)
+                    .hasMessageContaining("Failed to read CSV: read error");
+        }
+    }
+
+    @Nested
+    @DisplayName("Parallel chunks")
+    class ParallelChunks {
+
+        @TempDir
+        Path dir;
+
+        private DealParser chunkedParser(int chunkBytes) {
+            ImportProperties.Parallel parallel = new ImportProperties().getParallel();
+            parallel.setChunkSize(DataSize.ofBytes(chunkBytes));
+            parallel.setThreads(3);
+            return new DealParser(DealParser.Tokenizer.BYTES, parallel);
+        }
+
+        private static String describe(DealParser.RowData r) {
+            return r.rowNum() + "|" + r.request().getDealId() + "|" + r.request().getFromCurrency()
+                    + "|" + r.request().getToCurrency() + "|" + r.request().getTimestamp()
+                    + "|" + r.request().getAmountStr();
+        }
+
+        private List<String> collect(Stream<DealParser.RowData> rows, List<String> sink) {
+            try (rows) {
+                rows.map(ParallelChunks::describe).forEach(sink::add);
+            }
+            return sink;
+        }
+
+        private Path write(String csv) throws IOException {
+            return Files.writeString(dir.resolve("upload.csv"), csv);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 16, 64, 1 << 20})
+        @DisplayName("Produces the same rows as sequential parsing for any chunk size")
+        void sameRowsAsSequential(int chunkBytes) throws IOException {
+            StringBuilder csv = new StringBuilder("h\n");
+            for (int i = 0; i < 200; i++) {
+                csv.append(i % 7 == 0 ? "\"multi\nline " + i + "\"" : "D" + i).append(",USD,EUR,t,").append(i).append("\r\n");
+            }
+            Path upload = write(csv.toString());
+
+            List<String> expected = collect(parser.stream(Files.newInputStream(upload)), new ArrayList<>());
+            List<String> actual = collect(chunkedParser(chunkBytes).streamParallel(upload, r -> r), new ArrayList<>());
+
+            assertThat(actual).hasSize(200).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Applies the per-row function to every row")
+        void appliesPerRowFunction() throws IOException {
+            Path upload = write("h\nD1,USD\nD2,USD\n");
+
+            try (Stream<DealParser.RowData> rows = chunkedParser(4)
+                    .streamParallel(upload, r -> r.withValidation(ValidationOutcome.invalid("bad " + r.rowNum())))) {
+                assertThat(rows.map(r -> r.validation().error())).containsExactly("bad 2", "bad 3");
+            }
+        }
+
+        @Test
+        @DisplayName("Reports an unterminated quote after the rows before it")
+        void unterminatedQuote_sameRowsThenError() throws IOException {
+            Path upload = write("h\nD1,USD\nD2,USD\nD3,\"USD,EUR\nD4,USD\n");
+
+            List<String> expectedRows = new ArrayList<>();
+            Throwable expected = catchThrowable(() -> collect(parser.stream(Files.newInputStream(upload)), expectedRows));
+            List<String> actualRows = new ArrayList<>();
+            Throwable actual = catchThrowable(() -> collect(chunkedParser(4).streamParallel(upload, r -> r), actualRows));
+
+            assertThat(actualRows).containsExactly("2|D1|USD|||", "3|D2|USD|||").isEqualTo(expectedRows);
+            assertThat(actual).isInstanceOf(CsvParseException.class).hasMessage(expected.getMessage());
+        }
+    }
+
     @Nested
     @DisplayName("DealId edge cases")
     class DealIdEdgeCases {
@@ -194,5 +416,53 @@ class DealParserTest {
             assertThat(result).isEqualTo(result2);
             assertThat(result.hashCode()).isEqualTo(result2.hashCode());
         }
+
+        @Test
+        @DisplayName("ImportSummary.Counter tallies results by status")
+        void importSummary_counter() {
+            ImportSummary.Counter counter = new ImportSummary.Counter();
+            counter.accept(RowResult.success("D1"));
+            counter.accept(RowResult.duplicate("D1", "Duplicate"));
+            counter.accept(RowResult.failure("D2", "Amount is required"));
+            counter.accept(RowResult.failure("D3", "Amount is required"));
+
+            assertThat(counter.summary()).isEqualTo(new ImportSummary(4, 1, 1, 2));
+        }
+
+        @Test
+        @DisplayName("FailureDigest groups failures by message within its bounds")
+        void failureDigest_groupsAndBounds() {
+            FailureDigest digest = new FailureDigest(2, 2);
+            digest.accept(RowResult.success("S1"));
+            digest.accept(RowResult.duplicate("S1", "Duplicate"));
+            digest.accept(RowResult.failure("D1", "Invalid timestamp"));
+            digest.accept(RowResult.failure("D2", "Amount is required"));
+            digest.accept(RowResult.failure("D3", "Amount is required"));
+            digest.accept(RowResult.failure("D4", "Amount is required"));
+            digest.accept(RowResult.failure("D5", "Invalid currency"));
+
+            assertThat(digest.groups()).containsExactly(
+                    new FailureDigest.Group("Amount is required", 3, List.of(
+                            new FailureDigest.Sample("D2", null), new FailureDigest.Sample("D3", null))),
+                    new FailureDigest.Group("Invalid timestamp", 1, List.of(new FailureDigest.Sample("D1", null))));
+            assertThat(digest.ungrouped()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("FailureDigest groups checks by template, keeping raw values only in the samples")
+        void failureDigest_groupsByTemplate() {
+            FailureDigest digest = new FailureDigest(2, 2);
+            for (int i = 0; i < 500; i++) {
+                digest.accept(RowResult.failure("D" + i, "Invalid timestamp format: bad-" + i));
+            }
+            digest.accept(RowResult.failure("D500", "Invalid timestamp format: bad-500; Amount is required"));
+            digest.accept(RowResult.failure("D501", "Database error: PreparedStatementCallback; SQL [INSERT]"));
+
+            assertThat(digest.groups()).containsExactly(
+                    new FailureDigest.Group("Invalid timestamp format", 501, List.of(
+                            new FailureDigest.Sample("D0", "bad-0"), new FailureDigest.Sample("D1", "bad-1"))),
+                    new FailureDigest.Group("Amount is required", 1, List.of(new FailureDigest.Sample("D500", null))));
+            assertThat(digest.ungrouped()).isEqualTo(1);
+        }
     }
 }
\ No newline at end of file
@@ -1,36 +1,105 @@
 package com.example.deals.unit;
 
+import com.example.deals.config.DealCacheProperties;
+import com.example.deals.config.ImportProperties;
+import com.example.deals.dedup.DealIdSet;
+import com.example.deals.dto.DealPage;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.dto.DealResponse;
 import com.example.deals.model.Deal;
 import com.example.deals.parser.DealParser;
+import com.example.deals.repository.DealCopyRepository;
+import com.example.deals.repository.DealJdbcRepository;
 import com.example.deals.repository.DealRepository;
+import com.example.deals.repository.ImportCheckpointRepository;
 import com.example.deals.result.RowResult;
 import com.example.deals.service.DealImportService;
+import com.example.deals.service.DealLookupCache;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportScheduler;
+import com.example.deals.service.ImportThreads;
+import com.example.deals.service.KnownDealIds;
 import com.example.deals.validation.DealValidator;
-import com.example.deals.exception.DealValidationException;
+import com.example.deals.validation.ValidatedDeal;
+import com.example.deals.validation.ValidationOutcome;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class DealServiceTest {
 
     private DealRepository repository;
+    private DealJdbcRepository jdbcRepository;
+    private DealCopyRepository copyRepository;
+    private ImportCheckpointRepository checkpoints;
     private DealValidator validator;
+    private ImportProperties properties;
+    private DealCacheProperties cacheProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private KnownDealIds knownIds;
     private DealImportService service;
 
     @BeforeEach
     void setup() {
         repository = mock(DealRepository.class);
+        jdbcRepository = mock(DealJdbcRepository.class);
+        copyRepository = mock(DealCopyRepository.class);
+        checkpoints = mock(ImportCheckpointRepository.class);
         validator = mock(DealValidator.class);
-        service = new DealImportService(repository, validator);
+        properties = new ImportProperties();
+        cacheProperties = new DealCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        knownIds = new KnownDealIds(jdbcRepository, properties);
+        ImportMetrics metrics = new ImportMetrics(meterRegistry);
+        service = new DealImportService(repository, jdbcRepository, copyRepository, validator, properties,
+                new DealLookupCache(cacheProperties, meterRegistry), knownIds, metrics, checkpoints,
+                new ImportThreads(properties, null, metrics), new ImportScheduler(properties, metrics));
+        when(validator.check(any())).thenAnswer(inv -> ValidationOutcome.valid(validated(inv.getArgument(0))));
+        when(jdbcRepository.insertIfAbsent(any(Deal.class))).thenReturn(true);
+        when(jdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(inv -> dealIds(inv.getArgument(0)));
+    }
+
+    private static ValidatedDeal validated(DealRequest req) {
+        return new ValidatedDeal(req.getDealId(), req.getFromCurrency(), req.getToCurrency(),
+                req.getTimestamp() == null ? Instant.EPOCH : Instant.parse(req.getTimestamp()),
+                req.getAmountStr() == null ? BigDecimal.ONE : new BigDecimal(req.getAmountStr()));
+    }
+
+    private static Set<String> dealIds(List<Deal> deals) {
+        return deals.stream().map(Deal::getDealId).collect(Collectors.toSet());
+    }
+
+    private static DealParser.RowData row(int rowNum, String dealId) {
+        DealRequest req = new DealRequest();
+        req.setDealId(dealId);
+        req.setFromCurrency("USD");
+        req.setToCurrency("EUR");
+        req.setTimestamp("2025-11-15T10:00:00Z");
+        req.setAmountStr("100");
+        return new DealParser.RowData(rowNum, req);
     }
 
     @Nested
@@ -48,13 +117,13 @@ class DealServiceTest {
             req.setAmountStr("100");
 
             DealParser.RowData row = new DealParser.RowData(1, req);
-            when(repository.findByDealId("D1")).thenReturn(Optional.empty());
 
-            RowResult result = service.importOneRow(row, new HashSet<>());
+            RowResult result = service.importOneRow(row, DealIdSet.exact());
 
             assertThat(result.status()).isEqualTo("SUCCESS");
-            verify(validator).validate(req);
-            verify(repository).save(any(Deal.class));
+            verify(validator).check(req);
+            verify(jdbcRepository).insertIfAbsent(any(Deal.class));
+            verifyNoInteractions(repository);
         }
 
         @Test
@@ -64,30 +133,30 @@ class DealServiceTest {
             req.setDealId("D1");
             DealParser.RowData row = new DealParser.RowData(1, req);
 
-            Set<String> seen = new HashSet<>();
+            DealIdSet seen = DealIdSet.exact();
             seen.add("D1");
 
             RowResult result = service.importOneRow(row, seen);
 
             assertThat(result.status()).isEqualTo("DUPLICATE");
             verifyNoInteractions(validator);
-            verifyNoInteractions(repository);
+            verify(jdbcRepository, never()).insertIfAbsent(any(Deal.class));
         }
 
         @Test
-        @DisplayName("Duplicate in DB")
+        @DisplayName("Duplicate in DB is decided by the conflicting insert alone")
         void duplicateInDb() {
             DealRequest req = new DealRequest();
             req.setDealId("D1");
             DealParser.RowData row = new DealParser.RowData(1, req);
 
-            when(repository.findByDealId("D1")).thenReturn(Optional.of(new Deal()));
+            when(jdbcRepository.insertIfAbsent(any(Deal.class))).thenReturn(false);
 
-            RowResult result = service.importOneRow(row, new HashSet<>());
+            RowResult result = service.importOneRow(row, DealIdSet.exact());
 
-            assertThat(result.status()).isEqualTo("DUPLICATE");
-            verify(validator).validate(req);
-            verify(repository, never()).save(any());
+            assertThat(result).isEqualTo(RowResult.duplicate("D1", "Deal already exists in DB"));
+            verify(validator).check(req);
+            verifyNoInteractions(repository);
         }
 
         @Test
@@ -97,13 +166,27 @@ class DealServiceTest {
             req.setDealId("D1");
             DealParser.RowData row = new DealParser.RowData(1, req);
 
-            doThrow(new DealValidationException("Invalid deal")).when(validator).validate(req);
+            doReturn(ValidationOutcome.invalid("Invalid deal")).when(validator).check(req);
 
-            RowResult result = service.importOneRow(row, new HashSet<>());
+            RowResult result = service.importOneRow(row, DealIdSet.exact());
 
             assertThat(result.status()).isEqualTo("FAILURE");
             assertThat(result.message()).isEqualTo("Invalid deal");
-            verify(repository, never()).save(any());
+            verify(jdbcRepository, never()).insertIfAbsent(any(Deal.class));
+        }
+
+        @Test
+        @DisplayName("Uses the outcome validated while parsing")
+        void prevalidatedFailure() {
+            DealRequest req = new DealRequest();
+            req.setDealId("D1");
+            DealParser.RowData row = new DealParser.RowData(1, req, ValidationOutcome.invalid("Invalid deal"));
+
+            RowResult result = service.importOneRow(row, DealIdSet.exact());
+
+            assertThat(result.status()).isEqualTo("FAILURE");
+            assertThat(result.message()).isEqualTo("Invalid deal");
+            verifyNoInteractions(validator);
         }
 
         @Test
@@ -118,12 +201,11 @@ class DealServiceTest {
 
             DealParser.RowData row = new DealParser.RowData(1, req);
 
-            when(repository.findByDealId("D1")).thenReturn(Optional.empty());
-            doThrow(new RuntimeException("DB down")).when(repository).save(any());
+            doThrow(new RuntimeException("DB down")).when(jdbcRepository).insertIfAbsent(any(Deal.class));
 
-            RowResult result = service.importOneRow(row, new HashSet<>());
+            RowResult result = service.importOneRow(row, DealIdSet.exact());
 
-            assertThat(result.status()).isEqualTo("FAILURE");
+            assertThat(result).isEqualTo(RowResult.failure("D1", "Database error: DB down"));
         }
     }
 
@@ -144,36 +226,772 @@ class DealServiceTest {
                     new DealParser.RowData(2, req2)
             );
 
-            when(repository.findByDealId(anyString())).thenReturn(Optional.empty());
-
             List<RowResult> results = service.importRows(rows);
 
             assertThat(results).hasSize(2);
             assertThat(results.get(0).status()).isEqualTo("SUCCESS");
             assertThat(results.get(1).status()).isEqualTo("SUCCESS");
         }
+
+        @Test
+        @DisplayName("Pushes each result to the sink in row order")
+        void multipleRows_pushedToSink() {
+            DealRequest req1 = new DealRequest();
+            req1.setDealId("D1");
+            DealRequest req2 = new DealRequest();
+            req2.setDealId("D1");
+
+            List<DealParser.RowData> rows = List.of(
+                    new DealParser.RowData(1, req1),
+                    new DealParser.RowData(2, req2)
+            );
+
+            List<RowResult> sink = new ArrayList<>();
+            service.importRows(rows, sink::add);
+
+            assertThat(sink).extracting(RowResult::status).containsExactly("SUCCESS", "DUPLICATE");
+        }
+    }
+
+    @Nested
+    @DisplayName("Known Deal Ids Tests")
+    class KnownDealIdsTests {
+
+        @BeforeEach
+        void loadExisting() {
+            properties.setBatchSize(10);
+            properties.setBatchWriter(ImportProperties.BatchWriter.JPA);
+            properties.getKnownIds().setExpectedIds(1_000);
+            when(jdbcRepository.countDeals()).thenReturn(1L);
+            doAnswer(inv -> {
+                Consumer<String> action = inv.getArgument(0);
+                action.accept("OLD");
+                return null;
+            }).when(jdbcRepository).forEachDealId(any());
+            knownIds.load();
+        }
+
+        @Test
+        @DisplayName("Existence query only covers ids the filter cannot rule out")
+        void queriesOnlyMaybeExisting() {
+            when(jdbcRepository.findExistingDealIds(List.of("OLD"))).thenReturn(Set.of("OLD"));
+
+            List<RowResult> results = service.importRows(List.of(row(2, "OLD"), row(3, "NEW")));
+
+            assertThat(results).containsExactly(
+                    RowResult.duplicate("OLD", "Deal already exists in DB"),
+                    RowResult.success("NEW"));
+            verify(jdbcRepository).findExistingDealIds(List.of("OLD"));
+        }
+
+        @Test
+        @DisplayName("Inserted ids become known")
+        void insertedIdsAdded() {
+            assertThat(knownIds.mightExist("NEW")).isFalse();
+
+            service.importRows(List.of(row(2, "NEW")));
+
+            assertThat(knownIds.mightExist("NEW")).isTrue();
+        }
+
+        @Test
+        @DisplayName("A unique violation after a skipped check is reported as a duplicate")
+        void uniqueViolationBecomesDuplicate() {
+            when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("deals_deal_id_key"));
+            when(repository.save(any(Deal.class))).thenThrow(new DataIntegrityViolationException("deals_deal_id_key"));
+            when(repository.findByDealId("RACED")).thenReturn(Optional.of(new Deal()));
+
+            List<RowResult> results = service.importRows(List.of(row(2, "RACED")));
+
+            assertThat(results).containsExactly(RowResult.duplicate("RACED", "Deal already exists in DB"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup Cache Tests")
+    class LookupCacheTests {
+
+        private Deal stored(String dealId) {
+            Deal deal = new Deal();
+            deal.setDealId(dealId);
+            deal.setFromCurrency("USD");
+            deal.setToCurrency("EUR");
+            deal.setDealTimestamp(Instant.now());
+            deal.setAmount(BigDecimal.TEN);
+            return deal;
+        }
+
+        @Test
+        @DisplayName("Found deals are served from memory after the first lookup")
+        void foundDealIsCached() {
+            when(repository.findByDealId("D1")).thenReturn(Optional.of(stored("D1")));
+
+            assertThat(service.getDealByIdDto("D1")).isPresent();
+            assertThat(service.getDealByIdDto("D1")).isPresent();
+
+            verify(repository, times(1)).findByDealId("D1");
+        }
+
+        @Test
+        @DisplayName("Unknown ids are cached as misses")
+        void missingDealIsCached() {
+            when(repository.findByDealId("NOPE")).thenReturn(Optional.empty());
+
+            assertThat(service.getDealByIdDto("NOPE")).isEmpty();
+            assertThat(service.getDealByIdDto("NOPE")).isEmpty();
+
+            verify(repository, times(1)).findByDealId("NOPE");
+        }
+
+        @Test
+        @DisplayName("Importing a deal drops its cached miss")
+        void importInvalidatesCachedMiss() {
+            when(repository.findByDealId("D1")).thenReturn(Optional.empty());
+            assertThat(service.getDealByIdDto("D1")).isEmpty();
+
+            assertThat(service.importOneRow(row(2, "D1"), DealIdSet.exact()).status()).isEqualTo("SUCCESS");
+            when(repository.findByDealId("D1")).thenReturn(Optional.of(stored("D1")));
+
+            assertThat(service.getDealByIdDto("D1")).isPresent();
+        }
+
+        @Test
+        @DisplayName("Chunked imports drop cached misses for inserted rows only")
+        void chunkImportInvalidatesInsertedIds() {
+            properties.setBatchSize(10);
+            when(repository.findByDealId(any())).thenReturn(Optional.empty());
+            service.getDealByIdDto("D1");
+            service.getDealByIdDto("D2");
+
+            DealParser.RowData invalid = row(3, "D2");
+            doReturn(ValidationOutcome.invalid("Amount is required")).when(validator).check(invalid.request());
+            service.importRows(List.of(row(2, "D1"), invalid));
+            service.getDealByIdDto("D1");
+            service.getDealByIdDto("D2");
+
+            verify(repository, times(2)).findByDealId("D1");
+            verify(repository, times(1)).findByDealId("D2");
+        }
+
+        @Test
+        @DisplayName("Hits and misses are exposed as cache meters")
+        void metricsRegistered() {
+            when(repository.findByDealId("D1")).thenReturn(Optional.of(stored("D1")));
+            service.getDealByIdDto("D1");
+            service.getDealByIdDto("D1");
+
+            assertThat(meterRegistry.get("cache.gets").tag("cache", "deals.by-id").tag("result", "hit")
+                    .functionCounter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("cache.gets").tag("cache", "deals.by-id").tag("result", "miss")
+                    .functionCounter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.find("cache.evictions").tag("cache", "deals.by-id").meters()).isNotEmpty();
+        }
+
+        @Test
+        @DisplayName("A zero max size disables caching")
+        void zeroSizeDisablesCache() {
+            cacheProperties.setMaxSize(0);
+            DealImportService uncached = new DealImportService(repository, jdbcRepository, copyRepository, validator,
+                    properties, new DealLookupCache(cacheProperties), knownIds, new ImportMetrics(meterRegistry),
+                    checkpoints, new ImportThreads(properties, null, new ImportMetrics(meterRegistry)),
+                    new ImportScheduler(properties, new ImportMetrics(meterRegistry)));
+            when(repository.findByDealId("D1")).thenReturn(Optional.empty());
+
+            uncached.getDealByIdDto("D1");
+            uncached.getDealByIdDto("D1");
+
+            verify(repository, times(2)).findByDealId("D1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Batched Import Tests")
+    class BatchedImportTests {
+
+        @BeforeEach
+        void enableBatching() {
+            properties.setBatchSize(3);
+        }
+
+        @Test
+        @DisplayName("One conflict-skipping insert and no existence query per chunk")
+        void chunkedRoundTrips() {
+            List<RowResult> results = service.importRows(List.of(
+                    row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4")));
+
+            assertThat(results).extracting(RowResult::status)
+                    .containsExactly("SUCCESS", "SUCCESS", "SUCCESS", "SUCCESS");
+            verify(jdbcRepository, times(2)).insertAllIfAbsent(anyList());
+            verify(jdbcRepository, never()).findExistingDealIds(any());
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Keeps per-row statuses and messages")
+        void mixedOutcomes() {
+            DealParser.RowData invalid = row(5, "D4");
+            doReturn(ValidationOutcome.invalid("Amount is required")).when(validator).check(invalid.request());
+            when(jdbcRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of("D1"));
+
+            List<RowResult> results = service.importRows(List.of(
+                    row(2, "D1"), row(3, "D2"), row(4, "D1"), invalid));
+
+            assertThat(results).containsExactly(
+                    RowResult.success("D1"),
+                    RowResult.duplicate("D2", "Deal already exists in DB"),
+                    RowResult.duplicate("D1", "Duplicate dealId in file"),
+                    RowResult.failure("D4", "Amount is required"));
+        }
+
+        @Test
+        @DisplayName("Falls back to row-by-row inserts when the batch fails")
+        void batchFailure_retriesPerRow() {
+            doThrow(new RuntimeException("value too long")).when(jdbcRepository).insertAllIfAbsent(anyList());
+            when(jdbcRepository.insertIfAbsent(any(Deal.class))).thenAnswer(inv -> {
+                Deal deal = inv.getArgument(0);
+                if (deal.getDealId().equals("D2")) {
+                    throw new RuntimeException("value too long");
+                }
+                return !deal.getDealId().equals("D3");
+            });
+
+            List<RowResult> results = service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3")));
+
+            assertThat(results).containsExactly(
+                    RowResult.success("D1"),
+                    RowResult.failure("D2", "Database error: value too long"),
+                    RowResult.duplicate("D3", "Deal already exists in DB"));
+        }
+    }
+
+    @Nested
+    @DisplayName("JPA Batch Writer Tests")
+    class JpaBatchWriterTests {
+
+        @BeforeEach
+        void enableJpaBatching() {
+            properties.setBatchSize(3);
+            properties.setBatchWriter(ImportProperties.BatchWriter.JPA);
+            when(jdbcRepository.findExistingDealIds(any())).thenReturn(Set.of());
+        }
+
+        @Test
+        @DisplayName("Persists each chunk with one saveAll")
+        void chunkSavedTogether() {
+            List<RowResult> results = service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4")));
+
+            assertThat(results).extracting(RowResult::status)
+                    .containsExactly("SUCCESS", "SUCCESS", "SUCCESS", "SUCCESS");
+            verify(repository, times(2)).saveAll(anyList());
+            verify(repository, never()).save(any());
+            verify(jdbcRepository, never()).insertAllIfAbsent(anyList());
+        }
+
+        @Test
+        @DisplayName("Retries row by row with fresh ids when the chunk fails")
+        void chunkFailure_retriesPerRow() {
+            when(repository.saveAll(anyList())).thenAnswer(inv -> {
+                List<Deal> deals = inv.getArgument(0);
+                deals.forEach(deal -> deal.setId(99L));
+                throw new RuntimeException("unique violation");
+            });
+            when(repository.save(any(Deal.class))).thenAnswer(inv -> {
+                Deal deal = inv.getArgument(0);
+                assertThat(deal.getId()).isNull();
+                if (deal.getDealId().equals("D2")) {
+                    throw new RuntimeException("unique violation");
+                }
+                return deal;
+            });
+
+            List<RowResult> results = service.importRows(List.of(row(2, "D1"), row(3, "D2")));
+
+            assertThat(results).containsExactly(
+                    RowResult.success("D1"),
+                    RowResult.failure("D2", "Database error: unique violation"));
+        }
+
+        @Test
+        @DisplayName("Existence query failure fails the pending rows")
+        void existenceQueryFailure() {
+            when(jdbcRepository.findExistingDealIds(any())).thenThrow(new RuntimeException("DB down"));
+
+            List<RowResult> results = service.importRows(List.of(row(2, "D1")));
+
+            assertThat(results).containsExactly(RowResult.failure("D1", "Database error: DB down"));
+            verify(repository, never()).saveAll(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("COPY Bulk Import Tests")
+    class CopyImportTests {
+
+        private static final long LARGE_UPLOAD = DataSize.ofMegabytes(100).toBytes();
+
+        @Test
+        @DisplayName("Large uploads are merged through COPY")
+        void largeUpload_usesCopy() {
+            when(copyRepository.copyAndMerge(anyList())).thenReturn(Set.of("D1"));
+
+            List<RowResult> results = service.importRows(List.of(row(2, "D1"), row(3, "D2")), LARGE_UPLOAD);
+
+            assertThat(results).containsExactly(
+                    RowResult.success("D1"),
+                    RowResult.duplicate("D2", "Deal already exists in DB"));
+            verify(copyRepository).copyAndMerge(anyList());
+            verifyNoInteractions(repository, jdbcRepository);
+        }
+
+        @Test
+        @DisplayName("Small uploads keep the existing path")
+        void smallUpload_skipsCopy() {
+            List<RowResult> results = service.importRows(List.of(row(2, "D1")), 1024);
+
+            assertThat(results).containsExactly(RowResult.success("D1"));
+            verifyNoInteractions(copyRepository);
+        }
+
+        @Test
+        @DisplayName("Failed COPY falls back to the JDBC batch path")
+        void copyFailure_fallsBackToBatch() {
+            when(copyRepository.copyAndMerge(anyList())).thenThrow(new RuntimeException("numeric overflow"));
+
+            List<RowResult> results = service.importRows(List.of(row(2, "D1")), LARGE_UPLOAD);
+
+            assertThat(results).containsExactly(RowResult.success("D1"));
+            verify(jdbcRepository).insertAllIfAbsent(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Import Metrics Tests")
+    class ImportMetricsTests {
+
+        private long stageCount(String stage) {
+            return meterRegistry.get("deals.import.stage").tag("stage", stage).timer().count();
+        }
+
+        private double rows(String outcome) {
+            return meterRegistry.get("deals.import.rows").tag("outcome", outcome).counter().count();
+        }
+
+        @Test
+        @DisplayName("Per-row imports time every row and count outcomes")
+        void perRow() {
+            properties.setBatchSize(1);
+            when(jdbcRepository.insertIfAbsent(argThat(deal -> deal.getDealId().equals("D2")))).thenReturn(false);
+
+            service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D1")), 2_048);
+
+            assertThat(stageCount("parse")).isEqualTo(3);
+            assertThat(stageCount("validate")).isEqualTo(2);
+            assertThat(stageCount("insert")).isEqualTo(2);
+            assertThat(rows("success")).isEqualTo(1.0);
+            assertThat(rows("duplicate")).isEqualTo(2.0);
+            assertThat(meterRegistry.get("deals.import.file.size").summary().totalAmount()).isEqualTo(2_048.0);
+            assertThat(meterRegistry.get("deals.import.duration").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Chunked imports record one sample per stage and chunk")
+        void perChunk() {
+            properties.setBatchSize(3);
+            properties.setBatchWriter(ImportProperties.BatchWriter.JPA);
+            when(jdbcRepository.findExistingDealIds(any())).thenReturn(Set.of());
+
+            service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4")));
+
+            assertThat(stageCount("parse")).isEqualTo(2);
+            assertThat(stageCount("validate")).isEqualTo(2);
+            assertThat(stageCount("db-check")).isEqualTo(2);
+            assertThat(stageCount("insert")).isEqualTo(2);
+            assertThat(rows("success")).isEqualTo(4.0);
+            assertThat(meterRegistry.get("deals.import.file.size").summary().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Insert time is recorded even when the insert fails")
+        void failedInsertTimed() {
+            properties.setBatchSize(1);
+            when(jdbcRepository.insertIfAbsent(any(Deal.class))).thenThrow(new RuntimeException("DB down"));
+
+            service.importRows(List.of(row(2, "D1")));
+
+            assertThat(stageCount("insert")).isEqualTo(1);
+            assertThat(rows("failure")).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Import Logging Tests")
+    class ImportLoggingTests {
+
+        private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+        private final Logger serviceLogger = (Logger) LoggerFactory.getLogger(DealImportService.class);
+        private final Logger traceLogger = (Logger) LoggerFactory.getLogger("com.example.deals.import.trace");
+
+        @BeforeEach
+        void attach() {
+            events.start();
+            serviceLogger.addAppender(events);
+            traceLogger.addAppender(events);
+            traceLogger.setLevel(Level.DEBUG);
+        }
+
+        @AfterEach
+        void detach() {
+            serviceLogger.detachAppender(events);
+            traceLogger.detachAppender(events);
+        }
+
+        private List<String> messages() {
+            return events.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        }
+
+        private List<String> summaryFields() {
+            ILoggingEvent summary = events.list.get(events.list.size() - 1);
+            return Arrays.stream(summary.getArgumentArray()).map(String::valueOf).toList();
+        }
+
+        private DealParser.RowData invalid(int rowNum, String dealId) {
+            DealParser.RowData row = row(rowNum, dealId);
+            when(validator.check(row.request())).thenReturn(ValidationOutcome.invalid("Amount must be positive"));
+            return row;
+        }
+
+        @Test
+        @DisplayName("Row events are sampled per outcome and the import ends with one summary")
+        void sampled() {
+            properties.setBatchSize(1);
+            properties.getLogging().getFailure().setFirst(2);
+            properties.getLogging().getFailure().setEvery(0);
+
+            service.importRows(List.of(row(2, "D1"), invalid(3, "X1"), invalid(4, "X2"), invalid(5, "X3"),
+                    invalid(6, "X4"), row(7, "D1")));
+
+            assertThat(messages()).containsExactly(
+                    "Import failure: Amount must be positive",
+                    "Import failure: Amount must be positive",
+                    "Duplicate dealId in file",
+                    "Import finished");
+            assertThat(summaryFields()).contains("mode=per-row", "rows=6", "successes=1", "duplicates=1",
+                    "failures=4", "suppressedRowEvents=3", "traced=false");
+        }
+
+        @Test
+        @DisplayName("Traced imports log every row at DEBUG")
+        void traced() {
+            properties.setBatchSize(2);
+
+            service.importRows(List.of(row(2, "D1"), invalid(3, "X1"), row(4, "D2")), -1, true, result -> {});
+
+            assertThat(events.list).filteredOn(e -> e.getLoggerName().equals("com.example.deals.import.trace"))
+                    .extracting(ILoggingEvent::getFormattedMessage)
+                    .containsExactly("Row 2: SUCCESS", "Row 3: FAILURE", "Row 4: SUCCESS");
+            assertThat(messages()).last().isEqualTo("Import finished");
+            assertThat(summaryFields()).contains("mode=jdbc-batch-pipelined", "rows=3", "suppressedRowEvents=0",
+                    "traced=true");
+        }
+
+        @Test
+        @DisplayName("An import that throws still logs its summary")
+        void aborted() {
+            Iterable<DealParser.RowData> rows = () -> Stream.<DealParser.RowData>generate(() -> {
+                throw new IllegalStateException("CSV read failed");
+            }).iterator();
+
+            assertThatThrownBy(() -> service.importRows(rows)).isInstanceOf(IllegalStateException.class);
+
+            ILoggingEvent summary = events.list.get(events.list.size() - 1);
+            assertThat(summary.getLevel()).isEqualTo(Level.ERROR);
+            assertThat(summary.getFormattedMessage()).isEqualTo("Import aborted");
+            assertThat(summaryFields()).contains("rows=0", "error=CSV read failed");
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoint Tests")
+    class CheckpointTests {
+
+        private static final String HASH = "f00d";
+
+        private final List<RowResult> results = new ArrayList<>();
+
+        @BeforeEach
+        void chunked() {
+            properties.setBatchSize(2);
+        }
+
+        @Test
+        @DisplayName("Saves the last row of each committed chunk and clears the checkpoint when done")
+        void advancesPerChunk() {
+            int resumedAfter = service.importRows(
+                    List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4"), row(6, "D5")),
+                    -1, false, HASH, results::add);
+
+            assertThat(resumedAfter).isZero();
+            assertThat(results).hasSize(5);
+            InOrder order = inOrder(checkpoints);
+            order.verify(checkpoints).advance(HASH, 3);
+            order.verify(checkpoints).advance(HASH, 5);
+            order.verify(checkpoints).advance(HASH, 6);
+            order.verify(checkpoints).delete(HASH);
+        }
+
+        @Test
+        @DisplayName("Skips rows an earlier import committed, still catching in-file duplicates of them")
+        void resumes() {
+            when(checkpoints.lastCommittedRow(HASH)).thenReturn(OptionalInt.of(3));
+
+            int resumedAfter = service.importRows(
+                    List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D1")), -1, false, HASH, results::add);
+
+            assertThat(resumedAfter).isEqualTo(3);
+            assertThat(results).containsExactly(
+                    RowResult.success("D3"),
+                    RowResult.duplicate("D1", "Duplicate dealId in file"));
+            verify(jdbcRepository).insertAllIfAbsent(argThat(deals -> dealIds(deals).equals(Set.of("D3"))));
+            verify(checkpoints).advance(HASH, 5);
+        }
+
+        @Test
+        @DisplayName("Stops before the first row that failed on a database error")
+        void holdsAtPersistenceFailure() {
+            when(jdbcRepository.insertAllIfAbsent(anyList())).thenThrow(new RuntimeException("batch failed"));
+            when(jdbcRepository.insertIfAbsent(argThat(deal -> deal.getDealId().equals("D3"))))
+                    .thenThrow(new RuntimeException("DB down"));
+
+            service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4")),
+                    -1, false, HASH, results::add);
+
+            assertThat(results).extracting(RowResult::status)
+                    .containsExactly("SUCCESS", "SUCCESS", "FAILURE", "SUCCESS");
+            verify(checkpoints).advance(HASH, 3);
+            verify(checkpoints, never()).advance(HASH, 5);
+            verify(checkpoints, never()).delete(any());
+        }
+
+        @Test
+        @DisplayName("Per-row imports save the checkpoint once at the end of a short file")
+        void perRow() {
+            properties.setBatchSize(1);
+
+            service.importRows(List.of(row(2, "D1"), row(3, "D2")), -1, false, HASH, results::add);
+
+            verify(checkpoints).advance(HASH, 3);
+            verify(checkpoints).delete(HASH);
+        }
+
+        @Test
+        @DisplayName("Imports without a file hash leave checkpoints alone")
+        void withoutHash() {
+            service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3")));
+
+            verifyNoInteractions(checkpoints);
+        }
+    }
+
+    @Nested
+    @DisplayName("Pipeline Tests")
+    class PipelineTests {
+
+        private static final String HASH = "f00d";
+
+        private final List<RowResult> results = new ArrayList<>();
+
+        @BeforeEach
+        void pipelined() {
+            properties.setBatchSize(2);
+            properties.getPipeline().setEnabled(true);
+            properties.getPipeline().setValidators(2);
+            properties.getPipeline().setWriters(2);
+            properties.getPipeline().setQueueCapacity(1);
+        }
+
+        @AfterEach
+        void stopPools() {
+            service.shutdown();
+        }
+
+        private List<DealParser.RowData> mixedRows() {
+            DealParser.RowData invalid = row(7, "D5");
+            doReturn(ValidationOutcome.invalid("Amount is required")).when(validator).check(invalid.request());
+            when(jdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(inv -> {
+                Set<String> ids = dealIds(inv.getArgument(0));
+                ids.remove("D2");
+                return ids;
+            });
+            return List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D1"), row(6, "D4"), invalid,
+                    row(8, "D6"), row(9, "D3"), row(10, "D7"));
+        }
+
+        @Test
+        @DisplayName("Gives the same results, in row order, as the sequential import")
+        void sameResultsAsSequential() {
+            List<RowResult> pipelined = service.importRows(mixedRows());
+            properties.getPipeline().setEnabled(false);
+            List<RowResult> sequential = service.importRows(mixedRows());
+
+            assertThat(pipelined).isEqualTo(sequential).containsExactly(
+                    RowResult.success("D1"),
+                    RowResult.duplicate("D2", "Deal already exists in DB"),
+                    RowResult.success("D3"),
+                    RowResult.duplicate("D1", "Duplicate dealId in file"),
+                    RowResult.success("D4"),
+                    RowResult.failure("D5", "Amount is required"),
+                    RowResult.success("D6"),
+                    RowResult.duplicate("D3", "Duplicate dealId in file"),
+                    RowResult.success("D7"));
+            assertThat(meterRegistry.get("deals.import.in.flight").tag("resource", "rows").gauge().value())
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("Validates on the validator pool and writes on the writer pool")
+        void usesStagePools() {
+            Set<String> validatedOn = ConcurrentHashMap.newKeySet();
+            Set<String> writtenOn = ConcurrentHashMap.newKeySet();
+            doAnswer(inv -> {
+                validatedOn.add(Thread.currentThread().getName());
+                return ValidationOutcome.valid(validated(inv.getArgument(0)));
+            }).when(validator).check(any());
+            when(jdbcRepository.insertAllIfAbsent(anyList())).thenAnswer(inv -> {
+                writtenOn.add(Thread.currentThread().getName());
+                return dealIds(inv.getArgument(0));
+            });
+
+            service.importRows(List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D4"), row(6, "D5")));
+
+            assertThat(validatedOn).allMatch(name -> name.startsWith("import-validate-"));
+            assertThat(writtenOn).allMatch(name -> name.startsWith("import-write-"));
+        }
+
+        @Test
+        @DisplayName("Skips checkpointed rows and saves the checkpoint in row order")
+        void resumes() {
+            when(checkpoints.lastCommittedRow(HASH)).thenReturn(OptionalInt.of(3));
+
+            int resumedAfter = service.importRows(
+                    List.of(row(2, "D1"), row(3, "D2"), row(4, "D3"), row(5, "D1"), row(6, "D4")),
+                    -1, false, HASH, results::add);
+
+            assertThat(resumedAfter).isEqualTo(3);
+            assertThat(results).containsExactly(
+                    RowResult.success("D3"),
+                    RowResult.duplicate("D1", "Duplicate dealId in file"),
+                    RowResult.success("D4"));
+            verify(validator, never()).check(argThat(req -> req.getDealId().equals("D2")));
+            InOrder order = inOrder(checkpoints);
+            order.verify(checkpoints).advance(HASH, 5);
+            order.verify(checkpoints).advance(HASH, 6);
+            order.verify(checkpoints).delete(HASH);
+        }
+
+        @Test
+        @DisplayName("A parse error surfaces after the rows before it and empties the queues")
+        void parseError() {
+            Iterator<DealParser.RowData> failing = new Iterator<>() {
+                private int next = 2;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public DealParser.RowData next() {
+                    if (next == 7) {
+                        throw new IllegalStateException("CSV read failed");
+                    }
+                    next++;
+                    return row(next - 1, "D" + next);
+                }
+            };
+
+            assertThatThrownBy(() -> service.importRows(() -> failing, results::add))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("CSV read failed");
+            assertThat(results).hasSize(4);
+            assertThat(meterRegistry.get("deals.import.queue.depth").tag("queue", "parsed").gauge().value())
+                    .isZero();
+            assertThat(meterRegistry.get("deals.import.queue.depth").tag("queue", "writing").gauge().value())
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("A failing sink stops the import without leaving stage threads behind")
+        void sinkFailure() {
+            List<DealParser.RowData> rows = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                rows.add(row(i + 2, "D" + i));
+            }
+
+            assertThatThrownBy(() -> service.importRows(rows, result -> {
+                throw new IllegalStateException("client went away");
+            })).hasMessage("client went away");
+
+            assertThat(Thread.getAllStackTraces().keySet())
+                    .noneMatch(thread -> thread.getName().startsWith("import-parse-"));
+            verify(jdbcRepository, atMost(4)).insertAllIfAbsent(anyList());
+            assertThat(meterRegistry.get("deals.import.queue.depth").tag("queue", "parsed").gauge().value())
+                    .isZero();
+            assertThat(meterRegistry.get("deals.import.in.flight").tag("resource", "rows").gauge().value())
+                    .isZero();
+        }
     }
 
     @Nested
     @DisplayName("Retrieval Tests")
     class RetrievalTests {
 
-        @Test
-        @DisplayName("Get all deals as DTOs")
-        void getAllDealsDto_returnsMapped() {
+        private Deal stored(long id) {
             Deal deal = new Deal();
-            deal.setDealId("D1");
+            deal.setId(id);
+            deal.setDealId("D" + id);
             deal.setFromCurrency("USD");
             deal.setToCurrency("EUR");
             deal.setDealTimestamp(Instant.now());
             deal.setAmount(BigDecimal.TEN);
+            return deal;
+        }
+
+        @Test
+        @DisplayName("Keyset page returns a cursor when more deals follow")
+        void getDealsPage_morePages_returnsCursor() {
+            when(repository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3)))
+                    .thenReturn(List.of(stored(11), stored(12), stored(13)));
 
-            when(repository.findAll()).thenReturn(List.of(deal));
+            DealPage page = service.getDealsPage(10L, 2);
+
+            assertThat(page.deals()).extracting(DealResponse::getDealId).containsExactly("D11", "D12");
+            assertThat(page.nextCursor()).isEqualTo("12");
+        }
+
+        @Test
+        @DisplayName("Last keyset page has no cursor")
+        void getDealsPage_lastPage_noCursor() {
+            when(repository.findByIdGreaterThanOrderByIdAsc(12L, Limit.of(3))).thenReturn(List.of(stored(13)));
+
+            DealPage page = service.getDealsPage(12L, 2);
+
+            assertThat(page.deals()).extracting(DealResponse::getDealId).containsExactly("D13");
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Export hands every streamed deal to the sink and closes the stream")
+        void exportDeals_streamsToSink() {
+            AtomicBoolean closed = new AtomicBoolean();
+            when(repository.streamAllResponses()).thenReturn(Stream.of(
+                    new DealResponse("D1", "USD", "EUR", Instant.EPOCH, BigDecimal.ONE),
+                    new DealResponse("D2", "USD", "EUR", Instant.EPOCH, BigDecimal.TEN)).onClose(() -> closed.set(true)));
 
-            List<DealResponse> dtos = service.getAllDealsDto();
+            List<DealResponse> exported = new ArrayList<>();
+            service.exportDeals(exported::add);
 
-            assertThat(dtos).hasSize(1);
-            assertThat(dtos.get(0).getDealId()).isEqualTo("D1");
+            assertThat(exported).extracting(DealResponse::getDealId).containsExactly("D1", "D2");
+            assertThat(closed).isTrue();
         }
 
         @Test
@@ -222,10 +1040,10 @@ class DealServiceTest {
             DealRequest invalid = new DealRequest();
             invalid.setDealId("I1");
 
-            doNothing().when(validator).validate(valid);
-            doThrow(new DealValidationException("Invalid deal")).when(validator).validate(invalid);
+            doReturn(ValidationOutcome.valid(validated(valid))).when(validator).check(valid);
+            doReturn(ValidationOutcome.invalid("Invalid deal")).when(validator).check(invalid);
 
-            Set<String> seen = new HashSet<>();
+            DealIdSet seen = DealIdSet.exact();
             RowResult row1 = service.importOneRow(new DealParser.RowData(1, valid), seen);
             RowResult row2 = service.importOneRow(new DealParser.RowData(2, invalid), seen);
 
@@ -233,7 +1051,7 @@ class DealServiceTest {
             assertThat(row2.status()).isEqualTo("FAILURE");
             assertThat(row2.message()).isEqualTo("Invalid deal");
 
-            verify(repository, times(1)).save(any());
+            verify(jdbcRepository, times(1)).insertIfAbsent(any(Deal.class));
         }
     }
 }
\ No newline at end of file
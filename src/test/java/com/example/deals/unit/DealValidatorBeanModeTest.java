@@ -0,0 +1,16 @@
+package com.example.deals.unit;
+
+import com.example.deals.validation.DealValidator;
+import org.junit.jupiter.api.DisplayName;
+
+/**
+ * Runs every {@link DealValidatorTest} case against the Bean Validation engine.
+ */
+@DisplayName("DealValidator Unit Tests (Bean Validation mode)")
+class DealValidatorBeanModeTest extends DealValidatorTest {
+
+    @Override
+    protected DealValidator.Mode mode() {
+        return DealValidator.Mode.BEAN;
+    }
+}
@@ -3,11 +3,23 @@ package com.example.deals.unit;
 import com.example.deals.dto.DealRequest;
 import com.example.deals.exception.DealValidationException;
 import com.example.deals.validation.DealValidator;
+import com.example.deals.validation.ValidatedDeal;
+import com.example.deals.validation.ValidationOutcome;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import jakarta.validation.Constraint;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
@@ -16,9 +28,13 @@ class DealValidatorTest {
 
     private DealValidator validator;
 
+    protected DealValidator.Mode mode() {
+        return DealValidator.Mode.COMPILED;
+    }
+
     @BeforeEach
     void setUp() {
-        validator = new DealValidator();
+        validator = new DealValidator(mode());
     }
 
     @Nested
@@ -74,6 +90,41 @@ class DealValidatorTest {
         }
     }
 
+    @Nested
+    @DisplayName("Constraint Annotations")
+    class ConstraintAnnotations {
+
+        @Test
+        @DisplayName("DealRequest only declares constraints the compiled mode checks")
+        void dealRequest_constraintsMatchCompiledMode() {
+            List<String> constraints = Arrays.stream(DealRequest.class.getDeclaredFields())
+                    .flatMap(field -> Arrays.stream(field.getAnnotations())
+                            .filter(a -> a.annotationType().isAnnotationPresent(Constraint.class))
+                            .map(a -> field.getName() + ":" + a.annotationType().getSimpleName()))
+                    .toList();
+
+            assertThat(constraints).containsExactly("dealId:NotBlank");
+        }
+
+        @Test
+        @DisplayName("Only ASCII control characters and spaces count as blank")
+        void validate_unicodeWhitespaceDealId_followsNotBlank() {
+            DealRequest req = new DealRequest();
+            req.setDealId("\u2003");
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr("1000");
+
+            assertDoesNotThrow(() -> validator.validate(req));
+
+            req.setDealId("\t\u0001 ");
+            assertThatThrownBy(() -> validator.validate(req))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("DealId is required");
+        }
+    }
+
     @Nested
     @DisplayName("Currency Validation")
     class CurrencyValidation {
@@ -238,4 +289,150 @@ class DealValidatorTest {
                     .hasMessageContaining("Amount is not a valid number");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Typed Result")
+    class TypedResult {
+
+        private DealRequest request(String timestamp, String amount) {
+            DealRequest req = new DealRequest();
+            req.setDealId("D1");
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp(timestamp);
+            req.setAmountStr(amount);
+            return req;
+        }
+
+        @Test
+        @DisplayName("Returns the fields converted to their stored types")
+        void parse_validDeal_returnsTypedFields() {
+            ValidatedDeal deal = validator.parse(request("2025-01-01T10:00:00Z", "1000.50"));
+
+            assertThat(deal.dealId()).isEqualTo("D1");
+            assertThat(deal.fromCurrency()).isEqualTo("USD");
+            assertThat(deal.toCurrency()).isEqualTo("EUR");
+            assertThat(deal.timestamp()).isEqualTo(Instant.parse("2025-01-01T10:00:00Z"));
+            assertThat(deal.amount()).isEqualTo(new BigDecimal("1000.50"));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "2025-01-01T10:00:00Z", "1970-01-01T00:00:00Z", "1969-12-31T23:59:59Z", "0001-01-01T00:00:00Z",
+                "2024-02-29T12:34:56Z", "2000-02-29T00:00:00Z", "2025-06-30T23:59:59.5Z",
+                "2025-06-30T23:59:59.123456789Z", "2025-01-01T10:00:00+02:00", "2025-01-01t10:00:00z",
+                "2016-12-31T23:59:60Z"
+        })
+        @DisplayName("Timestamps match Instant.parse")
+        void parse_timestamp_matchesInstantParse(String timestamp) {
+            assertThat(validator.parse(request(timestamp, "1")).timestamp()).isEqualTo(Instant.parse(timestamp));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"2025-02-29T00:00:00Z", "1900-02-29T00:00:00Z", "2025-04-31T00:00:00Z",
+                "2025-13-01T00:00:00Z", "2025-01-01T24:00:01Z", "2025-01-01 10:00:00Z"})
+        @DisplayName("Timestamps rejected by Instant.parse are rejected")
+        void parse_invalidTimestamp_throws(String timestamp) {
+            assertThatThrownBy(() -> validator.parse(request(timestamp, "1")))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("Invalid timestamp format: " + timestamp);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"1000", "12.50", "+7", "0.01", ".5", "5.", "123456789012345678",
+                "1234567890123456789.5", "1e3", "2.5E-1"})
+        @DisplayName("Amounts match new BigDecimal")
+        void parse_amount_matchesBigDecimal(String amount) {
+            BigDecimal parsed = validator.parse(request("2025-01-01T10:00:00Z", amount)).amount();
+
+            assertThat(parsed).isEqualTo(new BigDecimal(amount));
+            assertThat(parsed.scale()).isEqualTo(new BigDecimal(amount).scale());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"NaN", "Infinity", "10d", "1.2.3", "-", ".", "1,000"})
+        @DisplayName("Amounts BigDecimal cannot store are rejected")
+        void parse_unstorableAmount_throws(String amount) {
+            assertThatThrownBy(() -> validator.parse(request("2025-01-01T10:00:00Z", amount)))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("Amount is not a valid number: " + amount);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"0", "-0.00", "-5"})
+        @DisplayName("Zero and negative amounts are rejected")
+        void parse_nonPositiveAmount_throws(String amount) {
+            assertThatThrownBy(() -> validator.parse(request("2025-01-01T10:00:00Z", amount)))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("Amount must be positive");
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"usd", "US1", "USDX", "ÜSD", ""})
+        @DisplayName("Currencies outside A-Z are rejected")
+        void parse_invalidCurrency_throws(String currency) {
+            DealRequest req = request("2025-01-01T10:00:00Z", "1");
+            req.setToCurrency(currency);
+
+            assertThatThrownBy(() -> validator.parse(req))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("toCurrency must be a 3-letter ISO code");
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation Outcome")
+    class Outcome {
+
+        @Test
+        @DisplayName("Valid row carries the typed deal and no errors")
+        void check_validDeal_isValid() {
+            DealRequest req = new DealRequest();
+            req.setDealId("D1");
+            req.setFromCurrency("USD");
+            req.setToCurrency("EUR");
+            req.setTimestamp("2025-01-01T10:00:00Z");
+            req.setAmountStr("1000");
+
+            ValidationOutcome outcome = validator.check(req);
+
+            assertThat(outcome.isValid()).isTrue();
+            assertThat(outcome.error()).isNull();
+            assertThat(outcome.deal().amount()).isEqualTo(new BigDecimal("1000"));
+        }
+
+        @Test
+        @DisplayName("Collects every field error in field order without throwing")
+        void check_invalidFields_collectsAllErrors() {
+            DealRequest req = new DealRequest();
+            req.setDealId(" ");
+            req.setFromCurrency("usd");
+            req.setToCurrency("EUR");
+            req.setTimestamp("yesterday");
+            req.setAmountStr("-1");
+
+            ValidationOutcome outcome = validator.check(req);
+
+            assertThat(outcome.isValid()).isFalse();
+            assertThat(outcome.deal()).isNull();
+            assertThat(outcome.errors()).containsExactly(
+                    "DealId is required",
+                    "fromCurrency must be a 3-letter ISO code",
+                    "Invalid timestamp format: yesterday",
+                    "Amount must be positive");
+            assertThat(outcome.error()).isEqualTo(String.join("; ", outcome.errors()));
+        }
+
+        @Test
+        @DisplayName("Throwing API reports all errors in one message")
+        void parse_invalidFields_throwsWithAllErrors() {
+            DealRequest req = new DealRequest();
+            req.setDealId("D1");
+
+            assertThatThrownBy(() -> validator.parse(req))
+                    .isInstanceOf(DealValidationException.class)
+                    .hasMessage("fromCurrency must be a 3-letter ISO code; toCurrency must be a 3-letter ISO code; "
+                            + "Timestamp is required; Amount is required");
+        }
+    }
+}
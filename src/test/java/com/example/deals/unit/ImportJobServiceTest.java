@@ -0,0 +1,201 @@
+package com.example.deals.unit;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.job.ImportJob;
+import com.example.deals.parser.DealParser;
+import com.example.deals.result.RowResult;
+import com.example.deals.service.DealImportService;
+import com.example.deals.service.ImportJobService;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportThreads;
+import com.example.deals.validation.DealValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ImportJobService Tests")
+class ImportJobServiceTest {
+
+    private static final String CSV = """
+            dealUniqueId,fromCurrency,toCurrency,timestamp,amount
+            D1,USD,EUR,2025-01-01T10:00:00Z,1000
+            D2,GBP,USD,2025-01-01T11:00:00Z,500
+            """;
+
+    private DealImportService importService;
+    private ImportProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        importService = mock(DealImportService.class);
+        properties = new ImportProperties();
+    }
+
+    private ImportJobService newJobService() {
+        return new ImportJobService(new DealParser(), importService, new DealValidator(), properties,
+                new ImportThreads(properties, null, new ImportMetrics(new SimpleMeterRegistry())));
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "deals.csv", "text/csv", CSV.getBytes());
+    }
+
+    private static ImportJob awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return job;
+    }
+
+    @Nested
+    @DisplayName("Running jobs")
+    class RunningJobs {
+
+        @Test
+        @DisplayName("Completed job exposes counters and results")
+        void submit_completesWithResults() throws Exception {
+            doAnswer(inv -> {
+                Iterable<DealParser.RowData> rows = inv.getArgument(0);
+                Consumer<RowResult> sink = inv.getArgument(4);
+                rows.forEach(row -> sink.accept(RowResult.success(row.request().getDealId())));
+                return 0;
+            }).when(importService).importRows(any(), anyLong(), anyBoolean(), any(), any());
+
+            ImportJobService jobs = newJobService();
+            ImportJob job = awaitFinished(jobs.submit(upload()));
+
+            assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+            assertThat(job.getRowsParsed()).isEqualTo(2);
+            assertThat(job.getSuccesses()).isEqualTo(2);
+            assertThat(job.results(0, 10)).containsExactly(RowResult.success("D1"), RowResult.success("D2"));
+            assertThat(jobs.find(job.getId())).contains(job);
+        }
+
+        @Test
+        @DisplayName("Traced jobs ask for every row to be logged")
+        void submit_traced_passesTraceFlag() throws Exception {
+            ImportJobService jobs = newJobService();
+            ImportJob job = awaitFinished(jobs.submit(upload(), true));
+
+            assertThat(job.isTraced()).isTrue();
+            verify(importService).importRows(any(), anyLong(), eq(true), any(), any());
+        }
+
+        @Test
+        @DisplayName("Jobs pass the upload's SHA-256 and report the row they resumed after")
+        void submit_hashesUploadAndReportsResume() throws Exception {
+            String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CSV.getBytes()));
+            doReturn(1).when(importService).importRows(any(), anyLong(), anyBoolean(), eq(sha256), any());
+
+            ImportJobService jobs = newJobService();
+            ImportJob job = awaitFinished(jobs.submit(upload()));
+
+            assertThat(job.getFileHash()).isEqualTo(sha256);
+            assertThat(job.getResumedAfterRow()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Import failure marks the job as failed")
+        void submit_importThrows_marksFailed() throws Exception {
+            doThrow(new RuntimeException("DB down"))
+                    .when(importService).importRows(any(), anyLong(), anyBoolean(), any(), any());
+
+            ImportJobService jobs = newJobService();
+            ImportJob job = awaitFinished(jobs.submit(upload()));
+
+            assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+            assertThat(job.getError()).isEqualTo("DB down");
+        }
+    }
+
+    @Nested
+    @DisplayName("Spooled results")
+    class SpooledResults {
+
+        @Test
+        @DisplayName("Pages are read back from the spool in order, across index boundaries, before and after the job finishes")
+        void results_pagedFromSpool() {
+            ImportJob job = new ImportJob("job-1", "deals.csv", 7);
+            for (int i = 0; i < 3_000; i++) {
+                job.record(i % 3 == 0 ? RowResult.failure("D" + i, "Montant requis ✗") : RowResult.success("D" + i));
+            }
+
+            assertThat(job.results(1_022, 4)).containsExactly(
+                    RowResult.success("D1022"), RowResult.failure("D1023", "Montant requis ✗"),
+                    RowResult.success("D1024"), RowResult.success("D1025"));
+
+            job.markCompleted();
+
+            assertThat(job.results(1_023, 1)).containsExactly(RowResult.failure("D1023", "Montant requis ✗"));
+            assertThat(job.results(2_999, 10)).containsExactly(RowResult.success("D2999"));
+            assertThat(job.results(3_000, 10)).isEmpty();
+            assertThat(job.getFailures()).isEqualTo(1_000);
+            job.discard();
+        }
+
+        @Test
+        @DisplayName("Evicted jobs delete their results")
+        void evictedJob_discardsResults() throws Exception {
+            properties.getJobs().setMaxRetained(1);
+            doAnswer(inv -> {
+                Consumer<RowResult> sink = inv.getArgument(4);
+                sink.accept(RowResult.success("D1"));
+                return 0;
+            }).when(importService).importRows(any(), anyLong(), anyBoolean(), any(), any());
+
+            ImportJobService jobs = newJobService();
+            ImportJob first = awaitFinished(jobs.submit(upload()));
+            assertThat(first.results(0, 10)).containsExactly(RowResult.success("D1"));
+            awaitFinished(jobs.submit(upload()));
+
+            assertThat(jobs.find(first.getId())).isEmpty();
+            assertThat(first.results(0, 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Bounded executor")
+    class BoundedExecutor {
+
+        @Test
+        @DisplayName("Rejects submissions once workers and queue are full")
+        void submit_queueFull_rejects() throws Exception {
+            properties.getJobs().setThreads(1);
+            properties.getJobs().setQueueCapacity(1);
+
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(inv -> {
+                release.await(5, TimeUnit.SECONDS);
+                return 0;
+            }).when(importService).importRows(any(), anyLong(), anyBoolean(), any(), any());
+
+            ImportJobService jobs = newJobService();
+            try {
+                jobs.submit(upload());
+                jobs.submit(upload());
+
+                assertThatThrownBy(() -> jobs.submit(upload())).isInstanceOf(RejectedExecutionException.class);
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+}
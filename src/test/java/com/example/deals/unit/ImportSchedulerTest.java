@@ -0,0 +1,253 @@
+package com.example.deals.unit;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.controller.ImportAdmissionFilter;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImportScheduler Tests")
+class ImportSchedulerTest {
+
+    private ImportProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImportProperties();
+        properties.getAdmission().setMaxBytes(DataSize.ofBytes(100));
+        properties.getAdmission().setMaxRows(10);
+        properties.getAdmission().setMaxWait(Duration.ofMillis(20));
+        registry = new SimpleMeterRegistry();
+    }
+
+    private ImportScheduler scheduler() {
+        return new ImportScheduler(properties, new ImportMetrics(registry));
+    }
+
+    private double inFlight(String resource) {
+        return registry.get("deals.import.in.flight").tag("resource", resource).gauge().value();
+    }
+
+    private double rejections() {
+        return registry.get("deals.import.rejected").counter().count();
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Upload Admission")
+    class AdmissionTests {
+
+        @Test
+        @DisplayName("Holds the upload's size until closed, once")
+        void holdsUntilClosed() {
+            ImportScheduler scheduler = scheduler();
+
+            ImportScheduler.Admission admission = scheduler.admit("a", 30).orElseThrow();
+            assertThat(inFlight("bytes")).isEqualTo(30);
+
+            admission.close();
+            admission.close();
+            assertThat(inFlight("bytes")).isZero();
+        }
+
+        @Test
+        @DisplayName("A caller cannot hold more than its share, while other callers still get in")
+        void callerShare() {
+            ImportScheduler scheduler = scheduler();
+            scheduler.admit("a", 50).orElseThrow();
+
+            assertThat(scheduler.admit("a", 1)).isEmpty();
+            assertThat(scheduler.admit("b", 50)).isPresent();
+            assertThat(rejections()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Uploads are charged their full size, unknown sizes the caller's share, and larger ones are refused")
+        void chargedInFull() {
+            ImportScheduler scheduler = scheduler();
+
+            assertThat(scheduler.getMaxUploadBytes()).isEqualTo(50);
+            assertThatThrownBy(() -> scheduler.admit("a", 51)).isInstanceOf(IllegalArgumentException.class);
+            scheduler.admit("a", -1).orElseThrow();
+            scheduler.admit("b", 45).orElseThrow();
+
+            assertThat(inFlight("bytes")).isEqualTo(95);
+            assertThat(scheduler.admit("c", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("A waiting upload is admitted as soon as room frees up")
+        void waitsForRoom() throws Exception {
+            properties.getAdmission().setMaxWait(Duration.ofSeconds(5));
+            ImportScheduler scheduler = scheduler();
+            ImportScheduler.Admission first = scheduler.admit("a", 50).orElseThrow();
+            scheduler.admit("b", 50).orElseThrow();
+
+            AtomicReference<Optional<ImportScheduler.Admission>> admitted = new AtomicReference<>();
+            Thread waiter = new Thread(() -> admitted.set(scheduler.admit("c", 40)));
+            waiter.start();
+            awaitBlocked(waiter);
+            first.close();
+            waiter.join(5_000);
+
+            assertThat(admitted.get()).isPresent();
+            assertThat(inFlight("bytes")).isEqualTo(90);
+            assertThat(rejections()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Row Credit")
+    class RowTests {
+
+        @Test
+        @DisplayName("Imports take turns: a second import is served before the first one's next chunk")
+        void roundRobin() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            ImportScheduler.RowBudget holder = scheduler.rowBudget();
+            holder.take(10);
+            ImportScheduler.RowBudget large = scheduler.rowBudget();
+            ImportScheduler.RowBudget small = scheduler.rowBudget();
+
+            Thread firstChunk = new Thread(() -> large.takeOrCancel(5));
+            Thread secondChunk = new Thread(() -> large.takeOrCancel(5));
+            Thread otherImport = new Thread(() -> small.takeOrCancel(5));
+            for (Thread thread : new Thread[] {firstChunk, secondChunk, otherImport}) {
+                thread.start();
+                awaitBlocked(thread);
+            }
+
+            holder.give(10);
+            firstChunk.join(5_000);
+            otherImport.join(5_000);
+
+            assertThat(firstChunk.isAlive()).isFalse();
+            assertThat(otherImport.isAlive()).isFalse();
+            assertThat(secondChunk.isAlive()).isTrue();
+
+            small.close();
+            secondChunk.join(5_000);
+            assertThat(secondChunk.isAlive()).isFalse();
+            large.close();
+            assertThat(inFlight("rows")).isZero();
+        }
+
+        @Test
+        @DisplayName("Closing a budget returns what it still holds, and oversized chunks are clamped")
+        void closeReturnsCredit() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            ImportScheduler.RowBudget budget = scheduler.rowBudget();
+
+            assertThat(budget.creditFor(500)).isEqualTo(10);
+            long credit = budget.take(500);
+            assertThat(credit).isEqualTo(10);
+            budget.give(credit);
+            budget.take(4);
+            budget.take(3);
+            assertThat(inFlight("rows")).isEqualTo(7);
+
+            budget.close();
+            assertThat(inFlight("rows")).isZero();
+            assertThat(scheduler.rowBudget().take(10)).isEqualTo(10);
+        }
+    }
+
+    @Nested
+    @DisplayName("Admission Filter")
+    class FilterTests {
+
+        private MockHttpServletRequest upload(String caller, int size) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/deals/import");
+            request.addHeader("X-Client-Id", caller);
+            request.setContent(new byte[size]);
+            return request;
+        }
+
+        @Test
+        @DisplayName("Admitted uploads reach the controller and are released when the response completes")
+        void admitted() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            MockFilterChain chain = new MockFilterChain();
+
+            new ImportAdmissionFilter(scheduler, properties)
+                    .doFilter(upload("a", 40), new MockHttpServletResponse(), chain);
+
+            assertThat(chain.getRequest()).isNotNull();
+            assertThat(inFlight("bytes")).isZero();
+        }
+
+        @Test
+        @DisplayName("Uploads without room are answered 429 with Retry-After, without reading the body")
+        void rejected() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            scheduler.admit("a", 50).orElseThrow();
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            new ImportAdmissionFilter(scheduler, properties).doFilter(upload("a", 10), response, chain);
+
+            assertThat(response.getStatus()).isEqualTo(429);
+            assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+            assertThat(response.getContentAsString()).contains("Too many imports in progress");
+            assertThat(chain.getRequest()).isNull();
+        }
+
+        @Test
+        @DisplayName("An upload above a caller's share is answered 413 up front, so with a concurrent upload "
+                + "admitted bytes stay within max-bytes")
+        void oversized() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            ImportScheduler.Admission concurrent = scheduler.admit("b", 50).orElseThrow();
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            new ImportAdmissionFilter(scheduler, properties).doFilter(upload("a", 80), response, chain);
+
+            assertThat(response.getStatus()).isEqualTo(413);
+            assertThat(response.getContentAsString()).contains("exceeds the 50 bytes");
+            assertThat(chain.getRequest()).isNull();
+            assertThat(inFlight("bytes")).isEqualTo(50).isLessThanOrEqualTo(100);
+            concurrent.close();
+        }
+
+        @Test
+        @DisplayName("Other requests, and all requests when disabled, pass straight through")
+        void notFiltered() throws Exception {
+            ImportScheduler scheduler = scheduler();
+            scheduler.admit("a", 50).orElseThrow();
+            MockFilterChain other = new MockFilterChain();
+
+            new ImportAdmissionFilter(scheduler, properties)
+                    .doFilter(new MockHttpServletRequest("GET", "/api/v1/deals"), new MockHttpServletResponse(), other);
+            properties.getAdmission().setEnabled(false);
+            MockFilterChain disabled = new MockFilterChain();
+            new ImportAdmissionFilter(scheduler, properties)
+                    .doFilter(upload("a", 10), new MockHttpServletResponse(), disabled);
+
+            assertThat(other.getRequest()).isNotNull();
+            assertThat(disabled.getRequest()).isNotNull();
+            assertThat(rejections()).isZero();
+        }
+    }
+}
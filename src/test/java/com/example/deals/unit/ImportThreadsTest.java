@@ -0,0 +1,170 @@
+package com.example.deals.unit;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.service.ImportMetrics;
+import com.example.deals.service.ImportThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ImportThreads Tests")
+class ImportThreadsTest {
+
+    private ImportProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImportProperties();
+        registry = new SimpleMeterRegistry();
+    }
+
+    private ImportThreads threads(DataSource dataSource) {
+        return new ImportThreads(properties, dataSource, new ImportMetrics(registry));
+    }
+
+    @Nested
+    @DisplayName("Concurrency Limit")
+    class LimitTests {
+
+        @Test
+        @DisplayName("Defaults to the Hikari pool size divided by the pipeline writers")
+        void derivedFromPoolSize() {
+            properties.getPipeline().setWriters(3);
+            try (HikariDataSource pool = new HikariDataSource()) {
+                pool.setMaximumPoolSize(12);
+
+                assertThat(threads(pool).getMaxConcurrent()).isEqualTo(4);
+            }
+        }
+
+        @Test
+        @DisplayName("An explicit limit wins, and pools that are not Hikari count as the Hikari default")
+        void explicitAndFallback() {
+            assertThat(threads(mock(DataSource.class)).getMaxConcurrent()).isEqualTo(10);
+
+            properties.setMaxConcurrent(3);
+            assertThat(threads(mock(DataSource.class)).getMaxConcurrent()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Imports over the limit wait for a running one to finish")
+        void waitsForPermit() throws Exception {
+            properties.setMaxConcurrent(2);
+            ImportThreads limited = threads(null);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger mostRunning = new AtomicInteger();
+            CountDownLatch release = new CountDownLatch(1);
+
+            List<Thread> imports = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Thread thread = new Thread(() -> limited.limited(() -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return running.decrementAndGet();
+                }));
+                thread.start();
+                imports.add(thread);
+            }
+            while (running.get() < 2) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(50);
+            assertThat(running.get()).isEqualTo(2);
+
+            release.countDown();
+            for (Thread thread : imports) {
+                thread.join(5_000);
+            }
+            assertThat(mostRunning.get()).isEqualTo(2);
+            assertThat(registry.get("deals.import.wait").timer().count()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("An import interrupted while waiting is cancelled without running")
+        void interruptedWhileWaiting() throws Exception {
+            properties.setMaxConcurrent(1);
+            ImportThreads limited = threads(null);
+            CountDownLatch holding = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = new Thread(() -> limited.limited(() -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }));
+            holder.start();
+            holding.await(5, TimeUnit.SECONDS);
+
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicInteger ran = new AtomicInteger();
+            Thread waiter = new Thread(() -> {
+                try {
+                    limited.limited(ran::incrementAndGet);
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            waiter.start();
+            Thread.sleep(50);
+            waiter.interrupt();
+            waiter.join(5_000);
+            release.countDown();
+            holder.join(5_000);
+
+            assertThat(failure.get()).isInstanceOf(CancellationException.class);
+            assertThat(ran.get()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Thread Factories")
+    class FactoryTests {
+
+        @Test
+        @DisplayName("Platform threads are named with the prefix and a counter")
+        void platformNames() {
+            ImportThreads platform = threads(null);
+
+            assertThat(platform.isVirtual()).isFalse();
+            assertThat(platform.factory("import-job-").newThread(() -> {}).getName()).isEqualTo("import-job-1");
+        }
+
+        @Test
+        @DisplayName("Virtual threads are used only on runtimes that have them")
+        void virtualNeedsJava21() throws Exception {
+            properties.setVirtualThreads(true);
+            ImportThreads threads = threads(null);
+            boolean supported = Runtime.version().feature() >= 21;
+
+            assertThat(threads.isVirtual()).isEqualTo(supported);
+            AtomicReference<String> name = new AtomicReference<>();
+            Thread thread = threads.factory("import-job-").newThread(() -> name.set(Thread.currentThread().getName()));
+            thread.start();
+            thread.join(5_000);
+            assertThat(name.get()).startsWith("import-job-");
+            assertThat(thread.isDaemon()).isEqualTo(supported);
+        }
+    }
+}
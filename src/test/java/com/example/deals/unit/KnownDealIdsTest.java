@@ -0,0 +1,97 @@
+package com.example.deals.unit;
+
+import com.example.deals.config.ImportProperties;
+import com.example.deals.dedup.DealIdBloomFilter;
+import com.example.deals.repository.DealJdbcRepository;
+import com.example.deals.service.KnownDealIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class KnownDealIdsTest {
+
+    @Nested
+    @DisplayName("Bloom Filter")
+    class BloomFilterTests {
+
+        @Test
+        @DisplayName("Never forgets an added id")
+        void noFalseNegatives() {
+            DealIdBloomFilter filter = new DealIdBloomFilter(10_000, 0.01);
+            IntStream.range(0, 10_000).forEach(i -> filter.put("D" + i));
+
+            assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("D" + i))).isTrue();
+        }
+
+        @Test
+        @DisplayName("False positive rate stays near the configured rate at capacity")
+        void falsePositiveRate() {
+            DealIdBloomFilter filter = new DealIdBloomFilter(10_000, 0.01);
+            IntStream.range(0, 10_000).forEach(i -> filter.put("D" + i));
+
+            long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("X" + i)).count();
+
+            assertThat(falsePositives).isLessThan(2_000);
+            assertThat(filter.hashCount()).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("Rejects impossible sizing")
+        void invalidArguments() {
+            assertThatThrownBy(() -> new DealIdBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new DealIdBloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Loading")
+    class LoadingTests {
+
+        private final DealJdbcRepository jdbcRepository = mock(DealJdbcRepository.class);
+        private final KnownDealIds knownIds = new KnownDealIds(jdbcRepository, new ImportProperties());
+
+        @Test
+        @DisplayName("Everything might exist until the table has been scanned")
+        void notLoaded_everythingMightExist() {
+            assertThat(knownIds.isLoaded()).isFalse();
+            assertThat(knownIds.mightExist("ANY")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Scanned and added ids are known, others are not")
+        void loaded_answersFromFilter() {
+            when(jdbcRepository.countDeals()).thenReturn(1L);
+            doAnswer(inv -> {
+                knownIds.add("ADDED_DURING_SCAN");
+                Consumer<String> action = inv.getArgument(0);
+                action.accept("D1");
+                return null;
+            }).when(jdbcRepository).forEachDealId(any());
+
+            knownIds.load();
+
+            assertThat(knownIds.isLoaded()).isTrue();
+            assertThat(knownIds.mightExist("D1")).isTrue();
+            assertThat(knownIds.mightExist("ADDED_DURING_SCAN")).isTrue();
+            assertThat(knownIds.mightExist("D2")).isFalse();
+        }
+
+        @Test
+        @DisplayName("A failed scan leaves every id to the database check")
+        void loadFailure_everythingMightExist() {
+            when(jdbcRepository.countDeals()).thenThrow(new RuntimeException("DB down"));
+
+            knownIds.load();
+
+            assertThat(knownIds.isLoaded()).isFalse();
+            assertThat(knownIds.mightExist("D2")).isTrue();
+        }
+    }
+}